@@ -21,4 +21,22 @@ public class Circle extends Curve3D {
     public Point3D getDerivative(double t) {
         return new Point3D(-radius * Math.sin(t), radius * Math.cos(t), 0);
     }
+
+    @Override
+    public Point3D getSecondDerivative(double t) {
+        return new Point3D(-radius * Math.cos(t), -radius * Math.sin(t), 0);
+    }
+
+    // Кривые с одинаковыми параметрами равны: на этом держатся CurveInterner и SampleCache
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Double.compare(radius, ((Circle) o).radius) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(radius);
+    }
 }
@@ -0,0 +1,253 @@
+package curves;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Задачи 4-6 для больших контейнеров: выборка окружностей (общие ссылки, без клонов),
+// сортировка по радиусу и сумма радиусов.
+//
+// Радиусы выносятся в примитивный массив, перестановка индексов сортируется параллельной
+// LSD radix-сортировкой по битам double, сумма считается параллельно по Ноймайеру.
+// merge применяет дельту контейнера к готовой выборке: сортируются только добавленные
+// окружности, а затем сливаются с уже отсортированными за один проход.
+public final class CircleSubset {
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int PARALLEL_THRESHOLD = 1 << 16; // меньше - дешевле одним потоком
+
+    private final Circle[] circles;
+    private final double[] radii;
+    private final double totalRadius;
+
+    private CircleSubset(Circle[] circles, double[] radii) {
+        this.circles = circles;
+        this.radii = radii;
+        this.totalRadius = compensatedSum(radii);
+    }
+
+    public static CircleSubset of(List<? extends Curve3D> curves) {
+        int n = curves.size();
+        Circle[] found = new Circle[n];
+        IntStream.range(0, n).parallel().forEach(i -> found[i] = unwrapCircle(curves.get(i)));
+
+        int count = 0;
+        for (int i = 0; i < n; i++)
+            if (found[i] != null) found[count++] = found[i];
+
+        double[] unsortedRadii = new double[count];
+        Circle[] unsorted = found;
+        IntStream.range(0, count).parallel().forEach(i -> unsortedRadii[i] = unsorted[i].getRadius());
+
+        int[] order = radixSortIndices(unsortedRadii);
+        Circle[] sorted = new Circle[count];
+        double[] sortedRadii = new double[count];
+        IntStream.range(0, count).parallel().forEach(i -> {
+            sorted[i] = unsorted[order[i]];
+            sortedRadii[i] = unsortedRadii[order[i]];
+        });
+        return new CircleSubset(sorted, sortedRadii);
+    }
+
+    // Выборка после изменения контейнера: added и removed - кривые дельты, не только окружности.
+    // Удаляемая окружность ищется по радиусу и затем по ссылке; отсутствующие пропускаются
+    public CircleSubset merge(List<? extends Curve3D> added, List<? extends Curve3D> removed) {
+        boolean[] dropped = new boolean[circles.length];
+        int droppedCount = 0;
+        for (Curve3D curve : removed) {
+            Circle circle = unwrapCircle(curve);
+            if (circle == null) continue;
+            long key = sortableBits(circle.getRadius());
+            for (int i = lowerBound(key); i < circles.length && sortableBits(radii[i]) == key; i++) {
+                if (!dropped[i] && circles[i] == circle) {
+                    dropped[i] = true;
+                    droppedCount++;
+                    break;
+                }
+            }
+        }
+
+        List<Circle> found = new ArrayList<>();
+        for (Curve3D curve : added) {
+            Circle circle = unwrapCircle(curve);
+            if (circle != null) found.add(circle);
+        }
+        if (droppedCount == 0 && found.isEmpty()) return this;
+
+        double[] addedRadii = new double[found.size()];
+        for (int i = 0; i < addedRadii.length; i++)
+            addedRadii[i] = found.get(i).getRadius();
+        int[] order = radixSortIndices(addedRadii);
+
+        // Слияние; при равных радиусах прежние окружности идут первыми, как в of
+        int n = circles.length - droppedCount + order.length;
+        Circle[] merged = new Circle[n];
+        double[] mergedRadii = new double[n];
+        int i = 0, j = 0;
+        for (int k = 0; k < n; k++) {
+            while (i < circles.length && dropped[i]) i++;
+            boolean takeOld = j == order.length || i < circles.length
+                    && Long.compareUnsigned(sortableBits(radii[i]), sortableBits(addedRadii[order[j]])) <= 0;
+            if (takeOld) {
+                merged[k] = circles[i];
+                mergedRadii[k] = radii[i++];
+            } else {
+                merged[k] = found.get(order[j]);
+                mergedRadii[k] = addedRadii[order[j++]];
+            }
+        }
+        return new CircleSubset(merged, mergedRadii);
+    }
+
+    private int lowerBound(long key) {
+        int low = 0, high = radii.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(sortableBits(radii[mid]), key) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // Окружность под декораторами смещения и поворота, либо null
+    public static Circle unwrapCircle(Curve3D curve) {
+        Curve3D base = curve;
+        while (true) {
+            if (base instanceof Circle circle) return circle;
+            if (base instanceof TranslatedCurve tc) base = tc.getBaseCurve();
+            else if (base instanceof RotatedCurve rc) base = rc.getBaseCurve();
+            else return null;
+        }
+    }
+
+    // Отсортированы по возрастанию радиуса; это те же объекты, что и в исходном контейнере
+    public List<Circle> getCircles() {
+        return Collections.unmodifiableList(Arrays.asList(circles));
+    }
+
+    public int size() {
+        return circles.length;
+    }
+
+    public double getRadius(int index) {
+        return radii[index];
+    }
+
+    public double getTotalRadius() {
+        return totalRadius;
+    }
+
+    // Стабильная перестановка индексов, упорядочивающая keys по возрастанию
+    static int[] radixSortIndices(double[] keys) {
+        int n = keys.length;
+        long[] initialBits = new long[n];
+        int[] identity = new int[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            initialBits[i] = sortableBits(keys[i]);
+            identity[i] = i;
+        });
+        long[] bits = initialBits;
+        int[] order = identity;
+
+        int blocks = n < PARALLEL_THRESHOLD ? 1 : ForkJoinPool.commonPool().getParallelism() * 4;
+        int blockSize = Math.max(1, (n + blocks - 1) / blocks);
+        blocks = Math.max(1, (n + blockSize - 1) / blockSize);
+
+        long[] bitsBuffer = new long[n];
+        int[] orderBuffer = new int[n];
+        int[][] histograms = new int[blocks][RADIX];
+
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            final int s = shift;
+            final long[] src = bits;
+            final int[] srcOrder = order;
+
+            // Гистограммы цифры по блокам
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                int[] h = histograms[b];
+                Arrays.fill(h, 0);
+                for (int i = b * blockSize, end = Math.min(n, i + blockSize); i < end; i++)
+                    h[(int) (src[i] >>> s) & (RADIX - 1)]++;
+            });
+
+            // Все ключи с одинаковой цифрой - проход ничего не меняет
+            if (isSingleDigit(histograms, n)) continue;
+
+            // Смещения: сначала по цифре, внутри цифры - по номеру блока (это и даёт стабильность)
+            int offset = 0;
+            for (int d = 0; d < RADIX; d++) {
+                for (int[] h : histograms) {
+                    int c = h[d];
+                    h[d] = offset;
+                    offset += c;
+                }
+            }
+
+            final long[] dst = bitsBuffer;
+            final int[] dstOrder = orderBuffer;
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                int[] position = histograms[b];
+                for (int i = b * blockSize, end = Math.min(n, i + blockSize); i < end; i++) {
+                    int p = position[(int) (src[i] >>> s) & (RADIX - 1)]++;
+                    dst[p] = src[i];
+                    dstOrder[p] = srcOrder[i];
+                }
+            });
+
+            bitsBuffer = bits;
+            orderBuffer = order;
+            bits = dst;
+            order = dstOrder;
+        }
+        return order;
+    }
+
+    // Сумма с компенсацией Ноймайера: частичные суммы блоков параллельно, затем их компенсированное слияние
+    static double compensatedSum(double[] values) {
+        int n = values.length;
+        int blocks = n < PARALLEL_THRESHOLD ? 1 : ForkJoinPool.commonPool().getParallelism() * 4;
+        int blockSize = Math.max(1, (n + blocks - 1) / blocks);
+        blocks = Math.max(1, (n + blockSize - 1) / blockSize);
+
+        double[] partial = new double[2 * blocks]; // сумма и компенсация каждого блока
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            double sum = 0, compensation = 0;
+            for (int i = b * blockSize, end = Math.min(n, i + blockSize); i < end; i++) {
+                double t = sum + values[i];
+                if (Math.abs(sum) >= Math.abs(values[i])) compensation += (sum - t) + values[i];
+                else compensation += (values[i] - t) + sum;
+                sum = t;
+            }
+            partial[2 * b] = sum;
+            partial[2 * b + 1] = compensation;
+        });
+
+        double sum = 0, compensation = 0;
+        for (double value : partial) {
+            double t = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) compensation += (sum - t) + value;
+            else compensation += (value - t) + sum;
+            sum = t;
+        }
+        return sum + compensation;
+    }
+
+    // Биты double, упорядоченные как беззнаковые long: у отрицательных инвертируются все биты,
+    // у положительных - только знаковый
+    private static long sortableBits(double value) {
+        long raw = Double.doubleToLongBits(value);
+        return raw ^ ((raw >> 63) | Long.MIN_VALUE);
+    }
+
+    private static boolean isSingleDigit(int[][] histograms, int n) {
+        for (int d = 0; d < RADIX; d++) {
+            int total = 0;
+            for (int[] h : histograms) total += h[d];
+            if (total != 0) return total == n;
+        }
+        return true;
+    }
+}
@@ -3,6 +3,31 @@ package curves;
 import javafx.geometry.Point3D;
 
 public abstract class Curve3D {
+    // Шаг центральной разности: порядка кубического корня из машинного эпсилон,
+    // ошибка усечения и округления тогда одного порядка (~1e-10 относительно |r'|)
+    private static final double SECOND_DERIVATIVE_STEP = 1e-5;
+
     public abstract Point3D getPoint(double t);
     public abstract Point3D getDerivative(double t);
+
+    // Центральная разность производной для кривых без аналитической r''.
+    // Circle, Ellipse, Helix и декораторы переопределяют её точной формулой
+    public Point3D getSecondDerivative(double t) {
+        double h = SECOND_DERIVATIVE_STEP * Math.max(1, Math.abs(t));
+        Point3D forward = getDerivative(t + h);
+        Point3D backward = getDerivative(t - h);
+        return forward.subtract(backward).multiply(1 / (2 * h));
+    }
+
+    // Покомпонентное сравнение для equals декораторов: в отличие от Point3D.equals,
+    // согласовано с hashCode для -0.0 и NaN
+    static boolean sameVector(Point3D a, Point3D b) {
+        return Double.compare(a.getX(), b.getX()) == 0
+                && Double.compare(a.getY(), b.getY()) == 0
+                && Double.compare(a.getZ(), b.getZ()) == 0;
+    }
+
+    static int vectorHash(Point3D v) {
+        return 31 * (31 * Double.hashCode(v.getX()) + Double.hashCode(v.getY())) + Double.hashCode(v.getZ());
+    }
 }
@@ -0,0 +1,77 @@
+package curves;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Канонизация кривых по значению: для равных кривых возвращается один и тот же объект.
+// Декораторы интернируются вместе с базовой кривой, поэтому цепочки, отличающиеся только
+// смещением или поворотом, делят один экземпляр примитива.
+//
+// Каждый вызов intern - ссылка на каноническую кривую, release её снимает. Кривая без ссылок
+// уходит из таблицы, а с ней и ссылка декоратора на его базу, так что таблица не растёт
+// от правок, которые давно убраны из контейнера.
+public final class CurveInterner {
+    private final ConcurrentHashMap<Curve3D, Entry> canonical = new ConcurrentHashMap<>();
+
+    // Счётчик меняется только внутри compute, под блокировкой ячейки таблицы
+    private static final class Entry {
+        private final Curve3D curve;
+        private int references = 1;
+
+        private Entry(Curve3D curve) {
+            this.curve = curve;
+        }
+    }
+
+    public Curve3D intern(Curve3D curve) {
+        Entry existing = canonical.computeIfPresent(curve, (key, entry) -> {
+            entry.references++;
+            return entry;
+        });
+        if (existing != null) return existing.curve;
+
+        Curve3D base = null;
+        Curve3D rebuilt = curve;
+        if (curve instanceof TranslatedCurve tc) {
+            base = intern(tc.getBaseCurve());
+            if (base != tc.getBaseCurve()) rebuilt = new TranslatedCurve(base, tc.getOffset());
+        } else if (curve instanceof RotatedCurve rc) {
+            base = intern(rc.getBaseCurve());
+            if (base != rc.getBaseCurve())
+                rebuilt = new RotatedCurve(base, rc.getRotationAxis(), rc.getRotationAngle());
+        }
+
+        Curve3D candidate = rebuilt;
+        Entry winner = canonical.compute(candidate, (key, entry) -> {
+            if (entry == null) return new Entry(candidate);
+            entry.references++;
+            return entry;
+        });
+        // Равную кривую успел добавить другой поток - его запись уже держит свою ссылку на базу
+        if (winner.curve != candidate && base != null) release(base);
+        return winner.curve;
+    }
+
+    // Снимает ссылку, полученную из intern; curve - возвращённый им объект
+    public void release(Curve3D curve) {
+        boolean[] evicted = new boolean[1];
+        canonical.computeIfPresent(curve, (key, entry) -> {
+            if (entry.curve != curve) return entry; // не канонический объект - ссылок на него нет
+            if (--entry.references > 0) return entry;
+            evicted[0] = true;
+            return null;
+        });
+        if (!evicted[0]) return;
+
+        if (curve instanceof TranslatedCurve tc) release(tc.getBaseCurve());
+        else if (curve instanceof RotatedCurve rc) release(rc.getBaseCurve());
+    }
+
+    // Число различных кривых (вместе с базовыми кривыми декораторов)
+    public int size() {
+        return canonical.size();
+    }
+
+    public void clear() {
+        canonical.clear();
+    }
+}
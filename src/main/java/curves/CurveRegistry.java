@@ -0,0 +1,381 @@
+package curves;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Версионированный реестр кривых: добавление без блокировок, неизменяемые снимки
+// без копирования и уведомления слушателей с дельтами добавленных/удалённых кривых.
+//
+// Кривые лежат в append-only хранилище из чанков удваивающегося размера. Каждый слот
+// записывается ровно один раз, поэтому снимок - это лишь (версия, число слотов, удалённые слоты)
+// поверх общего хранилища.
+//
+// Удалённые слоты не переиспользуются. Когда их становится не меньше живых (и хотя бы
+// MIN_COMPACTION_DEAD), живые кривые переписываются по порядку в новое хранилище и реестр
+// переключается на него снимком той же версии. Старое хранилище живёт, пока на него ссылаются
+// старые снимки. На время копирования следующий слот старого хранилища запечатывается
+// (SEALED), чтобы в него никто не дописал. Добавляющий поток, наткнувшись на маркер, не ждёт,
+// а сам доделывает уплотнение: копирует живые слоты и пытается переключить реестр. Кто-то
+// из участников всегда успевает, так что добавление остаётся неблокирующим.
+//
+// Чтобы удаление не искало кривую перебором, у каждого хранилища есть индекс
+// "объект кривой -> его слоты" (по идентичности, как и сами удаления).
+public final class CurveRegistry {
+    private static final int FIRST_CHUNK_BITS = 5; // первый чанк на 32 кривые
+    private static final int MAX_CHUNKS = Integer.SIZE - FIRST_CHUNK_BITS - 1;
+    private static final int MIN_COMPACTION_DEAD = 64;
+    private static final Curve3D SEALED = new Circle(1); // маркер слота, а не кривая реестра
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(new Snapshot(new Storage(), 0, 0, null, 0));
+    private final ReentrantLock compactionLock = new ReentrantLock();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private volatile Snapshot delivered = current.get(); // пишется только под dispatchLock
+
+    public interface Listener {
+        void onChange(Change change);
+    }
+
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    public long getVersion() {
+        return current.get().version;
+    }
+
+    public void add(Curve3D curve) {
+        append(curve);
+        dispatch();
+    }
+
+    // Все кривые публикуются подряд, слушатели получают их одной дельтой
+    public void addAll(Collection<? extends Curve3D> newCurves) {
+        for (Curve3D curve : newCurves)
+            append(curve);
+        dispatch();
+    }
+
+    public boolean remove(Curve3D curve) {
+        if (!markRemoved(curve)) return false;
+        compactIfSparse();
+        dispatch();
+        return true;
+    }
+
+    // Удаление и добавление уходят слушателям одной дельтой; false - если старой кривой нет
+    public boolean replace(Curve3D curve, Curve3D replacement) {
+        Objects.requireNonNull(replacement, "Curve must not be null");
+        if (!markRemoved(curve)) return false;
+        append(replacement);
+        compactIfSparse();
+        dispatch();
+        return true;
+    }
+
+    // Занятые слоты текущего хранилища вместе с удалёнными
+    int getSlotCount() {
+        return current.get().slotCount;
+    }
+
+    private boolean markRemoved(Curve3D curve) {
+        while (true) {
+            Snapshot s = current.get();
+            int slot = s.slotOf(curve);
+            if (slot < 0) return false;
+
+            long[] removed = s.removed == null
+                    ? new long[(s.slotCount + 63) >>> 6]
+                    : Arrays.copyOf(s.removed, Math.max(s.removed.length, (s.slotCount + 63) >>> 6));
+            removed[slot >>> 6] |= 1L << slot;
+
+            if (current.compareAndSet(s, new Snapshot(s.storage, s.version + 1, s.slotCount, removed, s.size - 1)))
+                return true;
+        }
+    }
+
+    private void compactIfSparse() {
+        Snapshot s = current.get();
+        int dead = s.slotCount - s.size;
+        if (dead < Math.max(MIN_COMPACTION_DEAD, s.size) || !compactionLock.tryLock()) return;
+        try {
+            compact();
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    private void compact() {
+        // Запечатываем первый свободный слот: пока в нём маркер, число слотов не растёт, а после
+        // переключения поток с устаревшим снимком не сможет дописать в старое хранилище
+        while (true) {
+            Snapshot s = current.get();
+            if (s.slotCount - s.size < Math.max(MIN_COMPACTION_DEAD, s.size)) return;
+            if (s.storage.chunkFor(s.slotCount).compareAndSet(offsetInChunk(s.slotCount), null, SEALED)) {
+                finishCompaction(s.storage);
+                return;
+            }
+            current.compareAndSet(s, s.appended()); // слот занят добавлением - помогаем его опубликовать
+        }
+    }
+
+    // Переключает реестр с запечатанного хранилища на уплотнённую копию. Вызывается и уплотняющим
+    // потоком, и добавляющими; пока хранилище то же, снимок могут сменить только удаления
+    private void finishCompaction(Storage sealed) {
+        while (true) {
+            Snapshot s = current.get();
+            if (s.storage != sealed) return; // переключил другой участник
+            current.compareAndSet(s, s.compacted());
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void append(Curve3D curve) {
+        Objects.requireNonNull(curve, "Curve must not be null");
+        while (true) {
+            Snapshot s = current.get();
+            int index = s.slotCount;
+            AtomicReferenceArray<Curve3D> chunk = s.storage.chunkFor(index);
+            int offset = offsetInChunk(index);
+
+            if (chunk.compareAndSet(offset, null, curve)) {
+                // Слот наш - индексируем и публикуем его, если другой поток ещё не сделал это за нас.
+                // Уплотнение запечатывает только опубликованный конец, так что новое хранилище
+                // означает, что слот уже опубликован и скопирован (вместе с записью в индексе)
+                Storage storage = s.storage;
+                storage.index(curve, index);
+                while (s.storage == storage && s.slotCount <= index) {
+                    current.compareAndSet(s, s.appended());
+                    s = current.get();
+                }
+                return;
+            }
+            if (chunk.get(offset) == SEALED) {
+                finishCompaction(s.storage); // идёт уплотнение - доделываем его и пишем в новое хранилище
+                continue;
+            }
+            // Слот занят конкурентом, который ещё не опубликовал снимок - помогаем ему
+            current.compareAndSet(s, s.appended());
+        }
+    }
+
+    // Доставка изменений: один поток за раз, промежуточные версии склеиваются в одну дельту
+    // Повторная проверка после unlock не даёт потерять версию, опубликованную во время доставки
+    private void dispatch() {
+        while (current.get() != delivered && dispatchLock.tryLock()) {
+            try {
+                Snapshot to = current.get();
+                if (to == delivered) continue;
+                if (to.version == delivered.version) {
+                    delivered = to; // только уплотнение: содержимое не изменилось
+                    continue;
+                }
+                Change change = Change.between(delivered, to);
+                delivered = to;
+                for (Listener listener : listeners)
+                    listener.onChange(change);
+            } finally {
+                dispatchLock.unlock();
+            }
+        }
+    }
+
+    // Чанки слотов; после уплотнения у реестра новое хранилище, старое остаётся у старых снимков
+    private static final class Storage {
+        private final AtomicReferenceArray<AtomicReferenceArray<Curve3D>> chunks =
+                new AtomicReferenceArray<>(MAX_CHUNKS);
+        // Один и тот же объект может лежать в нескольких слотах; удалённые слоты остаются
+        // в индексе до уплотнения, у нового хранилища индекс строится заново
+        private final ConcurrentHashMap<Identity, int[]> index = new ConcurrentHashMap<>();
+
+        private AtomicReferenceArray<Curve3D> chunkFor(int index) {
+            int chunkIndex = chunkIndex(index);
+            AtomicReferenceArray<Curve3D> chunk = chunks.get(chunkIndex);
+            if (chunk == null) {
+                chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(1 << (chunkIndex + FIRST_CHUNK_BITS)));
+                chunk = chunks.get(chunkIndex);
+            }
+            return chunk;
+        }
+
+        private Curve3D slot(int index) {
+            return chunks.get(chunkIndex(index)).get(offsetInChunk(index));
+        }
+
+        private void index(Curve3D curve, int slot) {
+            index.merge(new Identity(curve), new int[]{slot}, (slots, added) -> {
+                int[] merged = Arrays.copyOf(slots, slots.length + 1);
+                merged[slots.length] = added[0];
+                return merged;
+            });
+        }
+
+        private int[] slotsOf(Curve3D curve) {
+            return index.get(new Identity(curve));
+        }
+    }
+
+    // Ключ индекса: кривые равны по значению, а реестр различает объекты
+    private record Identity(Curve3D curve) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Identity other && other.curve == curve;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(curve);
+        }
+    }
+
+    private static int chunkIndex(int index) {
+        int pos = index + (1 << FIRST_CHUNK_BITS);
+        return (Integer.SIZE - 1 - Integer.numberOfLeadingZeros(pos)) - FIRST_CHUNK_BITS;
+    }
+
+    private static int offsetInChunk(int index) {
+        int pos = index + (1 << FIRST_CHUNK_BITS);
+        return pos - Integer.highestOneBit(pos);
+    }
+
+    // Неизменяемый вид реестра на момент конкретной версии
+    public static final class Snapshot extends AbstractList<Curve3D> implements RandomAccess {
+        private final Storage storage;
+        private final long version;
+        private final int slotCount;
+        private final long[] removed; // null, если удалений не было
+        private final int size;
+        private volatile int[] liveSlots; // строится лениво, только при наличии удалений
+
+        private Snapshot(Storage storage, long version, int slotCount, long[] removed, int size) {
+            this.storage = storage;
+            this.version = version;
+            this.slotCount = slotCount;
+            this.removed = removed;
+            this.size = size;
+        }
+
+        private Snapshot appended() {
+            return new Snapshot(storage, version + 1, slotCount + 1, removed, size + 1);
+        }
+
+        // Живые кривые по порядку в новом хранилище; версия та же - содержимое не меняется
+        private Snapshot compacted() {
+            Storage copy = new Storage();
+            int n = 0;
+            for (int i = 0; i < slotCount; i++) {
+                if (isRemoved(i)) continue;
+                Curve3D curve = storage.slot(i);
+                copy.chunkFor(n).set(offsetInChunk(n), curve);
+                copy.index(curve, n);
+                n++;
+            }
+            return new Snapshot(copy, version, n, null, n);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Curve3D get(int index) {
+            Objects.checkIndex(index, size);
+            if (removed == null) return storage.slot(index);
+            return storage.slot(liveSlots()[index]);
+        }
+
+        private boolean isRemoved(int slot) {
+            return removed != null && (slot >>> 6) < removed.length && (removed[slot >>> 6] & (1L << slot)) != 0;
+        }
+
+        // Первый живой слот объекта. Индекс может опережать снимок (слот уже занят, но не
+        // опубликован), поэтому слоты за slotCount пропускаются
+        private int slotOf(Curve3D curve) {
+            int[] slots = storage.slotsOf(curve);
+            if (slots == null) return -1;
+            int first = -1;
+            for (int slot : slots)
+                if (slot < slotCount && !isRemoved(slot) && (first < 0 || slot < first)) first = slot;
+            return first;
+        }
+
+        private int[] liveSlots() {
+            int[] slots = liveSlots;
+            if (slots == null) {
+                slots = new int[size];
+                for (int i = 0, n = 0; i < slotCount; i++)
+                    if (!isRemoved(i)) slots[n++] = i;
+                liveSlots = slots;
+            }
+            return slots;
+        }
+    }
+
+    // Дельта между двумя версиями реестра
+    public static final class Change {
+        private final long fromVersion;
+        private final Snapshot snapshot;
+        private final List<Curve3D> added;
+        private final List<Curve3D> removed;
+
+        private Change(long fromVersion, Snapshot snapshot, List<Curve3D> added, List<Curve3D> removed) {
+            this.fromVersion = fromVersion;
+            this.snapshot = snapshot;
+            this.added = added;
+            this.removed = removed;
+        }
+
+        private static Change between(Snapshot from, Snapshot to) {
+            if (from.storage != to.storage) return acrossCompaction(from, to);
+
+            List<Curve3D> added = new ArrayList<>(Math.max(0, to.slotCount - from.slotCount));
+            for (int i = from.slotCount; i < to.slotCount; i++)
+                if (!to.isRemoved(i)) added.add(to.storage.slot(i));
+
+            List<Curve3D> removed = new ArrayList<>();
+            if (to.removed != null && !Arrays.equals(from.removed, to.removed)) {
+                for (int i = 0; i < from.slotCount; i++)
+                    if (to.isRemoved(i) && !from.isRemoved(i)) removed.add(to.storage.slot(i));
+            }
+            return new Change(from.version, to, Collections.unmodifiableList(added), Collections.unmodifiableList(removed));
+        }
+
+        // Уплотнение сохраняет порядок живых кривых, а новые добавляются в конец, поэтому
+        // общие кривые - подпоследовательность обоих снимков и находятся одним проходом
+        private static Change acrossCompaction(Snapshot from, Snapshot to) {
+            List<Curve3D> added = new ArrayList<>();
+            List<Curve3D> removed = new ArrayList<>();
+            int j = 0;
+            for (Curve3D curve : from) {
+                if (j < to.size && to.get(j) == curve) j++;
+                else removed.add(curve);
+            }
+            for (; j < to.size; j++)
+                added.add(to.get(j));
+            return new Change(from.version, to, Collections.unmodifiableList(added), Collections.unmodifiableList(removed));
+        }
+
+        public long getFromVersion() { return fromVersion; }
+        public long getToVersion() { return snapshot.version; }
+        public Snapshot getSnapshot() { return snapshot; }
+        public List<Curve3D> getAdded() { return added; }
+        public List<Curve3D> getRemoved() { return removed; }
+    }
+}
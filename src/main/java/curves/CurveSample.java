@@ -0,0 +1,26 @@
+package curves;
+
+import javafx.geometry.Point3D;
+
+// Ленивый сэмпл: точка и производная вычисляются только при обращении
+public final class CurveSample {
+    private final int curveIndex;
+    private final Curve3D curve;
+    private final double t;
+
+    CurveSample(int curveIndex, Curve3D curve, double t) {
+        this.curveIndex = curveIndex;
+        this.curve = curve;
+        this.t = t;
+    }
+
+    public int getCurveIndex() { return curveIndex; }
+
+    public Curve3D getCurve() { return curve; }
+
+    public double getT() { return t; }
+
+    public Point3D getPoint() { return curve.getPoint(t); }
+
+    public Point3D getDerivative() { return curve.getDerivative(t); }
+}
@@ -0,0 +1,170 @@
+package curves;
+
+import javafx.geometry.Point3D;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+// Пакетная выборка точек и производных в плоские буферы [x0, y0, z0, x1, ...].
+//
+// Цепочка декораторов над Circle/Ellipse/Helix сворачивается в одно аффинное
+// преобразование p = M * base(t) + o, поэтому примитивы считаются без создания Point3D.
+// Прочие кривые идут через getPoint/getDerivative. Буфер производных может быть null.
+public final class CurveSampler {
+    private CurveSampler() {
+    }
+
+    public static void sample(Curve3D curve, double[] t, double[] points, double[] derivatives) {
+        checkCapacity(t.length, points.length, derivatives == null ? -1 : derivatives.length);
+        sample(curve, t, (i, x, y, z) -> {
+            points[3 * i] = x;
+            points[3 * i + 1] = y;
+            points[3 * i + 2] = z;
+        }, derivatives == null ? null : (i, x, y, z) -> {
+            derivatives[3 * i] = x;
+            derivatives[3 * i + 1] = y;
+            derivatives[3 * i + 2] = z;
+        });
+    }
+
+    // Вдвое меньше памяти и готово для TriangleMesh.getPoints().setAll(...) без конвертации
+    public static void sample(Curve3D curve, double[] t, float[] points, float[] derivatives) {
+        checkCapacity(t.length, points.length, derivatives == null ? -1 : derivatives.length);
+        sample(curve, t, (i, x, y, z) -> {
+            points[3 * i] = (float) x;
+            points[3 * i + 1] = (float) y;
+            points[3 * i + 2] = (float) z;
+        }, derivatives == null ? null : (i, x, y, z) -> {
+            derivatives[3 * i] = (float) x;
+            derivatives[3 * i + 1] = (float) y;
+            derivatives[3 * i + 2] = (float) z;
+        });
+    }
+
+    // Запись float-компонент в сегмент (в том числе off-heap) в нативном порядке байт.
+    // Выравнивание не требуется: подходят и сегменты поверх byte[], и срезы с любым смещением
+    public static void sample(Curve3D curve, double[] t, MemorySegment points, MemorySegment derivatives) {
+        checkCapacity(t.length, points.byteSize() / Float.BYTES,
+                derivatives == null ? -1 : derivatives.byteSize() / Float.BYTES);
+        sample(curve, t, segmentWriter(points), derivatives == null ? null : segmentWriter(derivatives));
+    }
+
+    private interface VectorWriter {
+        void put(int index, double x, double y, double z);
+    }
+
+    private static VectorWriter segmentWriter(MemorySegment segment) {
+        return (i, x, y, z) -> {
+            long base = 3L * i;
+            segment.setAtIndex(ValueLayout.JAVA_FLOAT_UNALIGNED, base, (float) x);
+            segment.setAtIndex(ValueLayout.JAVA_FLOAT_UNALIGNED, base + 1, (float) y);
+            segment.setAtIndex(ValueLayout.JAVA_FLOAT_UNALIGNED, base + 2, (float) z);
+        };
+    }
+
+    // Цепочка декораторов, свёрнутая в p = M * base(t) + o: матрица M по строкам и смещение o
+    record Fold(Curve3D base, double[] m, double ox, double oy, double oz) {
+        static Fold of(Curve3D curve) {
+            double[] m = {1, 0, 0, 0, 1, 0, 0, 0, 1};
+            double ox = 0, oy = 0, oz = 0;
+
+            Curve3D base = curve;
+            while (true) {
+                if (base instanceof TranslatedCurve tc) {
+                    Point3D u = tc.getOffset();
+                    ox += m[0] * u.getX() + m[1] * u.getY() + m[2] * u.getZ();
+                    oy += m[3] * u.getX() + m[4] * u.getY() + m[5] * u.getZ();
+                    oz += m[6] * u.getX() + m[7] * u.getY() + m[8] * u.getZ();
+                    base = tc.getBaseCurve();
+                } else if (base instanceof RotatedCurve rc) {
+                    m = multiply(m, rotationMatrix(rc.getRotationAxis(), rc.getRotationAngle()));
+                    base = rc.getBaseCurve();
+                } else {
+                    return new Fold(base, m, ox, oy, oz);
+                }
+            }
+        }
+    }
+
+    private static void sample(Curve3D curve, double[] t, VectorWriter points, VectorWriter derivatives) {
+        Fold fold = Fold.of(curve);
+        Curve3D base = fold.base();
+        double[] m = fold.m();
+        double ox = fold.ox(), oy = fold.oy(), oz = fold.oz();
+
+        // Примитив в своей плоскости: p = (a cos t, b sin t, c t), p' = (-a sin t, b cos t, c)
+        double a, b, c;
+        if (base instanceof Circle circle) {
+            a = b = circle.getRadius();
+            c = 0;
+        } else if (base instanceof Ellipse ellipse) {
+            a = ellipse.getRadiusX();
+            b = ellipse.getRadiusY();
+            c = 0;
+        } else if (base instanceof Helix helix) {
+            a = b = helix.getRadius();
+            c = helix.getStep() / (2 * Math.PI);
+        } else {
+            sampleGeneric(curve, t, points, derivatives);
+            return;
+        }
+
+        for (int i = 0; i < t.length; i++) {
+            double cos = Math.cos(t[i]);
+            double sin = Math.sin(t[i]);
+
+            double px = a * cos, py = b * sin, pz = c * t[i];
+            points.put(i,
+                    m[0] * px + m[1] * py + m[2] * pz + ox,
+                    m[3] * px + m[4] * py + m[5] * pz + oy,
+                    m[6] * px + m[7] * py + m[8] * pz + oz);
+
+            if (derivatives != null) {
+                double dx = -a * sin, dy = b * cos;
+                derivatives.put(i,
+                        m[0] * dx + m[1] * dy + m[2] * c,
+                        m[3] * dx + m[4] * dy + m[5] * c,
+                        m[6] * dx + m[7] * dy + m[8] * c);
+            }
+        }
+    }
+
+    private static void sampleGeneric(Curve3D curve, double[] t, VectorWriter points, VectorWriter derivatives) {
+        for (int i = 0; i < t.length; i++) {
+            Point3D p = curve.getPoint(t[i]);
+            points.put(i, p.getX(), p.getY(), p.getZ());
+            if (derivatives != null) {
+                Point3D d = curve.getDerivative(t[i]);
+                derivatives.put(i, d.getX(), d.getY(), d.getZ());
+            }
+        }
+    }
+
+    // Столбцы матрицы поворота - образы базисных векторов
+    private static double[] rotationMatrix(Point3D axis, double angle) {
+        Point3D ex = RotatedCurve.rotatePoint(new Point3D(1, 0, 0), axis, angle);
+        Point3D ey = RotatedCurve.rotatePoint(new Point3D(0, 1, 0), axis, angle);
+        Point3D ez = RotatedCurve.rotatePoint(new Point3D(0, 0, 1), axis, angle);
+        return new double[]{
+                ex.getX(), ey.getX(), ez.getX(),
+                ex.getY(), ey.getY(), ez.getY(),
+                ex.getZ(), ey.getZ(), ez.getZ()
+        };
+    }
+
+    private static double[] multiply(double[] l, double[] r) {
+        double[] result = new double[9];
+        for (int row = 0; row < 3; row++)
+            for (int col = 0; col < 3; col++)
+                result[3 * row + col] = l[3 * row] * r[col] + l[3 * row + 1] * r[3 + col] + l[3 * row + 2] * r[6 + col];
+        return result;
+    }
+
+    static void checkCapacity(int samples, long pointCapacity, long derivativeCapacity) {
+        long required = 3L * samples;
+        if (pointCapacity < required)
+            throw new IllegalArgumentException("Point buffer must hold at least " + required + " components");
+        if (derivativeCapacity >= 0 && derivativeCapacity < required)
+            throw new IllegalArgumentException("Derivative buffer must hold at least " + required + " components");
+    }
+}
@@ -0,0 +1,168 @@
+package curves;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Ленивые потоки сэмплов по декартову произведению (кривые x сетка t).
+//
+// Пространство сэмплов нумеруется плоским индексом curve * grid.size() + i, и trySplit
+// делит диапазон индексов пополам. Поэтому разбиение равномерно и когда кривых много,
+// а сетка короткая, и когда кривая одна, а сетка длинная - parallel() загружает все ядра.
+// Примитивные проекции считают статистики (max |r'|, габариты) без объектов-сэмплов.
+//
+// Список кривых копируется при создании потока (снимок CurveRegistry уже неизменяем и
+// не копируется), так что IMMUTABLE и SIZED верны, даже если вызывающий потом меняет список.
+public final class CurveSamples {
+    private static final int X = 0, Y = 1, Z = 2;
+
+    private CurveSamples() {
+    }
+
+    public interface SampleFunction {
+        double apply(Curve3D curve, double t);
+    }
+
+    public static Stream<CurveSample> stream(List<? extends Curve3D> curves, ParameterGrid grid) {
+        List<? extends Curve3D> fixed = immutableCopy(curves);
+        return StreamSupport.stream(new SampleSpliterator(fixed, grid, 0, (long) fixed.size() * grid.size()), false);
+    }
+
+    public static DoubleStream mapToDouble(List<? extends Curve3D> curves, ParameterGrid grid, SampleFunction function) {
+        List<? extends Curve3D> fixed = immutableCopy(curves);
+        return StreamSupport.doubleStream(
+                new DoubleSampleSpliterator(fixed, grid, function, 0, (long) fixed.size() * grid.size()), false);
+    }
+
+    public static DoubleStream derivativeNorms(List<? extends Curve3D> curves, ParameterGrid grid) {
+        return mapToDouble(curves, grid, (curve, t) -> curve.getDerivative(t).magnitude());
+    }
+
+    // Координата точек по оси (0 - x, 1 - y, 2 - z), например для габаритного бокса через summaryStatistics()
+    public static DoubleStream coordinates(List<? extends Curve3D> curves, ParameterGrid grid, int axis) {
+        return switch (axis) {
+            case X -> mapToDouble(curves, grid, (curve, t) -> curve.getPoint(t).getX());
+            case Y -> mapToDouble(curves, grid, (curve, t) -> curve.getPoint(t).getY());
+            case Z -> mapToDouble(curves, grid, (curve, t) -> curve.getPoint(t).getZ());
+            default -> throw new IllegalArgumentException("Axis must be 0, 1 or 2: " + axis);
+        };
+    }
+
+    // List.copyOf не копирует списки, которые уже неизменяемы, и отвергает null
+    private static List<? extends Curve3D> immutableCopy(List<? extends Curve3D> curves) {
+        return curves instanceof CurveRegistry.Snapshot ? curves : List.copyOf(curves);
+    }
+
+    // Общая часть: диапазон плоских индексов [index, fence) и его деление пополам
+    private abstract static class IndexRange {
+        // Меньше этого сэмплов делить невыгодно
+        private static final long MIN_SPLIT = 64;
+
+        final List<? extends Curve3D> curves;
+        final ParameterGrid grid;
+        long index;
+        final long fence;
+
+        IndexRange(List<? extends Curve3D> curves, ParameterGrid grid, long index, long fence) {
+            this.curves = curves;
+            this.grid = grid;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        long splitPoint() {
+            long remaining = fence - index;
+            if (remaining < 2 * MIN_SPLIT) return -1;
+            long mid = index + remaining / 2;
+            index = mid;
+            return mid;
+        }
+
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+                    | Spliterator.IMMUTABLE | Spliterator.NONNULL;
+        }
+    }
+
+    private static final class SampleSpliterator extends IndexRange implements Spliterator<CurveSample> {
+        SampleSpliterator(List<? extends Curve3D> curves, ParameterGrid grid, long index, long fence) {
+            super(curves, grid, index, fence);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super CurveSample> action) {
+            if (index >= fence) return false;
+            int c = (int) (index / grid.size());
+            int i = (int) (index % grid.size());
+            index++;
+            action.accept(new CurveSample(c, curves.get(c), grid.getT(i)));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super CurveSample> action) {
+            long n = grid.size();
+            for (long k = index; k < fence; ) {
+                int c = (int) (k / n);
+                Curve3D curve = curves.get(c);
+                // Внутри одной кривой идём по t без деления на каждом шаге
+                for (int i = (int) (k % n); i < n && k < fence; i++, k++)
+                    action.accept(new CurveSample(c, curve, grid.getT(i)));
+            }
+            index = fence;
+        }
+
+        @Override
+        public Spliterator<CurveSample> trySplit() {
+            long start = index;
+            long mid = splitPoint();
+            return mid < 0 ? null : new SampleSpliterator(curves, grid, start, mid);
+        }
+    }
+
+    private static final class DoubleSampleSpliterator extends IndexRange implements Spliterator.OfDouble {
+        private final SampleFunction function;
+
+        DoubleSampleSpliterator(List<? extends Curve3D> curves, ParameterGrid grid, SampleFunction function,
+                                long index, long fence) {
+            super(curves, grid, index, fence);
+            this.function = function;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (index >= fence) return false;
+            int c = (int) (index / grid.size());
+            int i = (int) (index % grid.size());
+            index++;
+            action.accept(function.apply(curves.get(c), grid.getT(i)));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            long n = grid.size();
+            for (long k = index; k < fence; ) {
+                Curve3D curve = curves.get((int) (k / n));
+                for (int i = (int) (k % n); i < n && k < fence; i++, k++)
+                    action.accept(function.apply(curve, grid.getT(i)));
+            }
+            index = fence;
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            long start = index;
+            long mid = splitPoint();
+            return mid < 0 ? null : new DoubleSampleSpliterator(curves, grid, function, start, mid);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package curves;
+
+import javafx.geometry.Point3D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
+
+// Пересечения кривых с плоскостями: все t в [tMin, tMax], где n·p(t) = offset.
+//
+// Декораторы снимаются аналитически: смещение сдвигает offset плоскости, поворот
+// поворачивает её нормаль в обратную сторону. Для окружности и эллипса уравнение
+// A cos t + B sin t = d решается в замкнутом виде; для спирали добавляется линейный
+// член C t, и корни изолируются по точкам экстремума, а затем уточняются методом Ньютона
+// с защитой бисекцией. Неизвестные кривые сэмплируются и уточняются тем же методом
+// через getDerivative. Кривые обрабатываются параллельно.
+//
+// Касание плоскости - двойной корень: f не меняет знака, а в точке сэмпла почти никогда
+// не равна нулю точно. Поэтому локальные минимумы |f| без смены знака уточняются до
+// экстремума f (у спирали он известен, иначе Ньютон по f' с f'' из getSecondDerivative)
+// и засчитываются, если там |f| не больше TANGENT_TOLERANCE от масштаба задачи. С тем же
+// допуском нулём считается f в точках разбиения, а |d| = R у окружности и эллипса, чтобы
+// касание давало один корень, а не пару на расстоянии ~sqrt(допуска).
+public final class CurveSlicer {
+    private static final double GENERIC_SAMPLE_STEP = 0.05;
+    private static final int MAX_NEWTON_ITERATIONS = 100;
+    private static final double TOLERANCE = 1e-14;
+    private static final double TANGENT_TOLERANCE = 1e-12;
+    private static final double TWO_PI = 2 * Math.PI;
+
+    private CurveSlicer() {
+    }
+
+    public static List<PlaneIntersection> slice(List<? extends Curve3D> curves, List<Plane> planes,
+                                                double tMin, double tMax) {
+        if (!(tMin <= tMax)) throw new IllegalArgumentException("tMin must not exceed tMax");
+
+        return IntStream.range(0, curves.size()).parallel()
+                .mapToObj(i -> sliceCurve(i, curves.get(i), planes, tMin, tMax))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    // Параметры пересечения одной кривой с одной плоскостью, по возрастанию t.
+    // Кривая, целиком лежащая в плоскости, даёт пустой результат.
+    public static double[] intersect(Curve3D curve, Plane plane, double tMin, double tMax) {
+        Point3D normal = plane.getNormal();
+        double offset = plane.getOffset();
+
+        Curve3D base = curve;
+        while (true) {
+            if (base instanceof TranslatedCurve tc) {
+                offset -= normal.dotProduct(tc.getOffset());
+                base = tc.getBaseCurve();
+            } else if (base instanceof RotatedCurve rc) {
+                // n·(R p) = (R^T n)·p
+                normal = RotatedCurve.rotatePoint(normal, rc.getRotationAxis(), -rc.getRotationAngle());
+                base = rc.getBaseCurve();
+            } else {
+                break;
+            }
+        }
+
+        if (base instanceof Circle c)
+            return trigRoots(normal.getX() * c.getRadius(), normal.getY() * c.getRadius(), offset, tMin, tMax);
+        if (base instanceof Ellipse e)
+            return trigRoots(normal.getX() * e.getRadiusX(), normal.getY() * e.getRadiusY(), offset, tMin, tMax);
+        if (base instanceof Helix h)
+            return helixRoots(normal.getX() * h.getRadius(), normal.getY() * h.getRadius(),
+                    normal.getZ() * h.getStep() / TWO_PI, offset, tMin, tMax);
+        return genericRoots(base, normal, offset, tMin, tMax);
+    }
+
+    private static List<PlaneIntersection> sliceCurve(int curveIndex, Curve3D curve, List<Plane> planes,
+                                                      double tMin, double tMax) {
+        List<PlaneIntersection> result = new ArrayList<>();
+        for (int j = 0; j < planes.size(); j++)
+            for (double t : intersect(curve, planes.get(j), tMin, tMax))
+                result.add(new PlaneIntersection(curveIndex, j, t, curve.getPoint(t)));
+        return result;
+    }
+
+    // A cos t + B sin t = d  <=>  R cos(t - phi) = d
+    private static double[] trigRoots(double a, double b, double d, double tMin, double tMax) {
+        double r = Math.hypot(a, b);
+        // Касательная плоскость после округления может оказаться чуть дальше R
+        if (r == 0 || Math.abs(d) > r * (1 + TANGENT_TOLERANCE)) return new double[0];
+
+        double phi = Math.atan2(b, a);
+        // Почти касание сводится к одному корню, а не к паре на расстоянии ~sqrt(допуска)
+        double alpha = Math.abs(Math.abs(d) - r) <= TANGENT_TOLERANCE * r
+                ? (d > 0 ? 0 : Math.PI)
+                : Math.acos(Math.max(-1, Math.min(1, d / r)));
+
+        RootList roots = new RootList();
+        addPeriodic(roots, phi + alpha, tMin, tMax);
+        if (alpha > 0 && alpha < Math.PI) addPeriodic(roots, phi - alpha, tMin, tMax);
+        return roots.toSortedArray();
+    }
+
+    // A cos t + B sin t + C t = d
+    private static double[] helixRoots(double a, double b, double c, double d, double tMin, double tMax) {
+        double r = Math.hypot(a, b);
+        if (Math.abs(c) <= TOLERANCE * r) return trigRoots(a, b, d, tMin, tMax);
+        if (r <= TOLERANCE * Math.abs(c)) {
+            // Плоскость перпендикулярна оси спирали: z(t) линейна
+            double t = d / c;
+            return t >= tMin && t <= tMax ? new double[]{t} : new double[0];
+        }
+
+        DoubleUnaryOperator f = t -> a * Math.cos(t) + b * Math.sin(t) + c * t - d;
+        DoubleUnaryOperator df = t -> -a * Math.sin(t) + b * Math.cos(t) + c;
+
+        // Экстремумы: R sin(t - phi) = C; между соседними f монотонна и имеет не больше одного корня
+        RootList breakpoints = new RootList();
+        breakpoints.add(tMin);
+        breakpoints.add(tMax);
+        if (Math.abs(c) < r) {
+            double phi = Math.atan2(b, a);
+            double beta = Math.asin(c / r);
+            addPeriodic(breakpoints, phi + beta, tMin, tMax);
+            addPeriodic(breakpoints, phi + Math.PI - beta, tMin, tMax);
+        }
+        // Экстремумы уже среди точек разбиения: касание - это |f| в пределах допуска в одной из них
+        double scale = r + Math.abs(d) + Math.abs(c) * Math.max(Math.abs(tMin), Math.abs(tMax));
+        return rootsOnMonotoneIntervals(f, df, null, breakpoints.toSortedArray(), scale);
+    }
+
+    private static double[] genericRoots(Curve3D curve, Point3D normal, double offset, double tMin, double tMax) {
+        DoubleUnaryOperator f = t -> normal.dotProduct(curve.getPoint(t)) - offset;
+        DoubleUnaryOperator df = t -> normal.dotProduct(curve.getDerivative(t));
+        DoubleUnaryOperator d2f = t -> normal.dotProduct(curve.getSecondDerivative(t));
+
+        // Без аналитики корни изолируются по смене знака на равномерной сетке
+        int intervals = (int) Math.max(16, Math.ceil((tMax - tMin) / GENERIC_SAMPLE_STEP));
+        double[] grid = new double[intervals + 1];
+        for (int i = 0; i <= intervals; i++)
+            grid[i] = i == intervals ? tMax : tMin + (tMax - tMin) * i / intervals;
+        return rootsOnMonotoneIntervals(f, df, d2f, grid, Math.abs(offset));
+    }
+
+    // d2f == null - внутренние точки разбиения сами являются экстремумами f.
+    // scale - порядок величины слагаемых f, от него отсчитывается допуск касания
+    private static double[] rootsOnMonotoneIntervals(DoubleUnaryOperator f, DoubleUnaryOperator df,
+                                                     DoubleUnaryOperator d2f, double[] breakpoints, double scale) {
+        double[] values = new double[breakpoints.length];
+        for (int i = 0; i < breakpoints.length; i++) {
+            values[i] = f.applyAsDouble(breakpoints[i]);
+            scale = Math.max(scale, Math.abs(values[i]));
+        }
+        // |f| в пределах допуска - корень, даже если округление дало f не того знака:
+        // иначе касание рядом с точкой разбиения дало бы два корня на расстоянии ~sqrt(допуска)
+        double tolerance = TANGENT_TOLERANCE * Math.max(1, scale);
+        for (int i = 0; i < breakpoints.length; i++)
+            if (Math.abs(values[i]) <= tolerance) values[i] = 0;
+
+        RootList roots = new RootList();
+        if (values[0] == 0) roots.add(breakpoints[0]);
+        for (int i = 1; i < breakpoints.length; i++) {
+            double fa = values[i - 1], fb = values[i];
+            if (fb == 0) roots.add(breakpoints[i]);
+            else if (fa != 0 && (fa < 0) != (fb < 0))
+                roots.add(safeguardedNewton(f, df, breakpoints[i - 1], breakpoints[i], fa));
+        }
+
+        if (d2f == null) return roots.toSortedArray();
+
+        // Касания между узлами сетки: |f| достигает минимума, а знак по обе стороны тот же
+        for (int i = 1; i + 1 < breakpoints.length; i++) {
+            double prev = values[i - 1], fi = values[i], next = values[i + 1];
+            if (fi == 0 || prev == 0 || next == 0) continue;
+            if ((prev < 0) != (fi < 0) || (next < 0) != (fi < 0)) continue;
+            if (!(Math.abs(fi) < Math.abs(prev) && Math.abs(fi) <= Math.abs(next))) continue;
+
+            double t = extremum(df, d2f, breakpoints[i - 1], breakpoints[i + 1]);
+            if (!Double.isNaN(t) && Math.abs(f.applyAsDouble(t)) <= tolerance) roots.add(t);
+        }
+        return roots.toSortedArray();
+    }
+
+    // Экстремум f на [a, b] как корень f'; NaN, если f' не меняет знака
+    private static double extremum(DoubleUnaryOperator df, DoubleUnaryOperator d2f, double a, double b) {
+        double dfa = df.applyAsDouble(a);
+        double dfb = df.applyAsDouble(b);
+        if (dfa == 0) return a;
+        if (dfb == 0) return b;
+        if ((dfa < 0) == (dfb < 0)) return Double.NaN;
+        return safeguardedNewton(df, d2f, a, b, dfa);
+    }
+
+    // Ньютон внутри отрезка со сменой знака; шаг за пределы отрезка заменяется бисекцией
+    private static double safeguardedNewton(DoubleUnaryOperator f, DoubleUnaryOperator df,
+                                            double a, double b, double fa) {
+        double x = 0.5 * (a + b);
+        for (int i = 0; i < MAX_NEWTON_ITERATIONS; i++) {
+            double fx = f.applyAsDouble(x);
+            if (fx == 0) return x;
+            if ((fx < 0) == (fa < 0)) {
+                a = x;
+                fa = fx;
+            } else {
+                b = x;
+            }
+
+            double next = x - fx / df.applyAsDouble(x);
+            if (!(next > a && next < b)) next = 0.5 * (a + b); // в том числе NaN при f' = 0
+            if (Math.abs(next - x) <= TOLERANCE * Math.max(1, Math.abs(next))) return next;
+            x = next;
+        }
+        return x;
+    }
+
+    private static void addPeriodic(RootList roots, double base, double tMin, double tMax) {
+        double first = Math.ceil((tMin - base) / TWO_PI);
+        double last = Math.floor((tMax - base) / TWO_PI);
+        for (double k = first; k <= last; k++)
+            roots.add(base + k * TWO_PI);
+    }
+
+    // Растущий массив корней с удалением совпадающих значений
+    private static final class RootList {
+        private double[] values = new double[4];
+        private int size;
+
+        void add(double value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        double[] toSortedArray() {
+            double[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int n = 0;
+            for (double value : sorted)
+                if (n == 0 || value - sorted[n - 1] > TOLERANCE * Math.max(1, Math.abs(value)))
+                    sorted[n++] = value;
+            return Arrays.copyOf(sorted, n);
+        }
+    }
+}
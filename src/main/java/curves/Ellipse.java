@@ -11,6 +11,10 @@ public class Ellipse extends Curve3D {
         this.radiusY = radiusY;
     }
 
+    public double getRadiusX() { return radiusX; }
+
+    public double getRadiusY() { return radiusY; }
+
     @Override
     public Point3D getPoint(double t) {
         return new Point3D(radiusX * Math.cos(t), radiusY * Math.sin(t), 0);
@@ -20,4 +24,22 @@ public class Ellipse extends Curve3D {
     public Point3D getDerivative(double t) {
         return new Point3D(-radiusX * Math.sin(t), radiusY * Math.cos(t), 0);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Point3D getSecondDerivative(double t) {
+        return new Point3D(-radiusX * Math.cos(t), -radiusY * Math.sin(t), 0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Ellipse other = (Ellipse) o;
+        return Double.compare(radiusX, other.radiusX) == 0 && Double.compare(radiusY, other.radiusY) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(radiusX) + Double.hashCode(radiusY);
+    }
+}
@@ -0,0 +1,170 @@
+package curves;
+
+import javafx.geometry.Point3D;
+
+// Пакетное вычисление реперов Френе (T, N, B) и кривизны для массива параметров t.
+// Векторы хранятся подряд в примитивных буферах: [x0, y0, z0, x1, y1, z1, ...]
+//
+// Там, где репер Френе не определён, репер всё равно ортонормирован. На прямом участке
+// и в точке перегиба предыдущая нормаль проецируется на плоскость, перпендикулярную T
+// (без предыдущей - ось координат, наименее сонаправленная с T). В особой точке r' = 0
+// переносится весь предыдущий репер, а в самом начале берутся оси координат.
+public final class FrenetFrames {
+    // Порог, ниже которого |r' x r''| считается нулевым (прямой участок)
+    private static final double EPSILON = 1e-12;
+
+    private final double[] parameters;
+    private final double[] tangents;
+    private final double[] normals;
+    private final double[] binormals;
+    private final double[] curvatures;
+
+    private FrenetFrames(double[] parameters, double[] tangents, double[] normals,
+                         double[] binormals, double[] curvatures) {
+        this.parameters = parameters;
+        this.tangents = tangents;
+        this.normals = normals;
+        this.binormals = binormals;
+        this.curvatures = curvatures;
+    }
+
+    public static FrenetFrames evaluate(Curve3D curve, double[] t) {
+        int n = t.length;
+        FrenetFrames frames = new FrenetFrames(t.clone(), new double[3 * n], new double[3 * n],
+                new double[3 * n], new double[n]);
+        evaluate(curve, t, frames.tangents, frames.normals, frames.binormals, frames.curvatures);
+        return frames;
+    }
+
+    // Заполняет буферы вызывающей стороны за один проход по t, без промежуточных коллекций
+    public static void evaluate(Curve3D curve, double[] t, double[] tangents, double[] normals,
+                                double[] binormals, double[] curvatures) {
+        int n = t.length;
+        if (tangents.length < 3 * n || normals.length < 3 * n || binormals.length < 3 * n)
+            throw new IllegalArgumentException("Vector buffers must hold at least " + 3 * n + " values");
+        if (curvatures.length < n)
+            throw new IllegalArgumentException("Curvature buffer must hold at least " + n + " values");
+
+        for (int i = 0; i < n; i++) {
+            Point3D d1 = curve.getDerivative(t[i]);
+            Point3D d2 = curve.getSecondDerivative(t[i]);
+            int o = 3 * i;
+
+            double d1x = d1.getX(), d1y = d1.getY(), d1z = d1.getZ();
+            double d2x = d2.getX(), d2y = d2.getY(), d2z = d2.getZ();
+
+            double speed = Math.sqrt(d1x * d1x + d1y * d1y + d1z * d1z);
+            if (speed < EPSILON) {
+                // Особая точка: касательная не определена
+                carryFrame(i, tangents, normals, binormals);
+                curvatures[i] = 0;
+                continue;
+            }
+            double tx = d1x / speed, ty = d1y / speed, tz = d1z / speed;
+            tangents[o] = tx;
+            tangents[o + 1] = ty;
+            tangents[o + 2] = tz;
+
+            // r' x r''
+            double cx = d1y * d2z - d1z * d2y;
+            double cy = d1z * d2x - d1x * d2z;
+            double cz = d1x * d2y - d1y * d2x;
+            double crossNorm = Math.sqrt(cx * cx + cy * cy + cz * cz);
+
+            if (crossNorm < EPSILON * speed * speed) {
+                // Прямой участок: нормаль не определена, переносим предыдущую
+                transportNormal(i, tangents, normals, binormals);
+                curvatures[i] = 0;
+                continue;
+            }
+            double bx = cx / crossNorm, by = cy / crossNorm, bz = cz / crossNorm;
+            binormals[o] = bx;
+            binormals[o + 1] = by;
+            binormals[o + 2] = bz;
+
+            // N = B x T
+            normals[o] = by * tz - bz * ty;
+            normals[o + 1] = bz * tx - bx * tz;
+            normals[o + 2] = bx * ty - by * tx;
+
+            curvatures[i] = crossNorm / (speed * speed * speed);
+        }
+    }
+
+    private static void carryFrame(int i, double[] tangents, double[] normals, double[] binormals) {
+        int o = 3 * i;
+        if (i > 0) {
+            System.arraycopy(tangents, o - 3, tangents, o, 3);
+            System.arraycopy(normals, o - 3, normals, o, 3);
+            System.arraycopy(binormals, o - 3, binormals, o, 3);
+            return;
+        }
+        tangents[o] = 1;
+        tangents[o + 1] = 0;
+        tangents[o + 2] = 0;
+        normals[o] = 0;
+        normals[o + 1] = 1;
+        normals[o + 2] = 0;
+        binormals[o] = 0;
+        binormals[o + 1] = 0;
+        binormals[o + 2] = 1;
+    }
+
+    // T в tangents[3i..] уже записан
+    private static void transportNormal(int i, double[] tangents, double[] normals, double[] binormals) {
+        int o = 3 * i;
+        double tx = tangents[o], ty = tangents[o + 1], tz = tangents[o + 2];
+
+        double nx = 0, ny = 0, nz = 0;
+        double norm = 0;
+        if (i > 0) {
+            nx = normals[o - 3];
+            ny = normals[o - 2];
+            nz = normals[o - 1];
+            double along = nx * tx + ny * ty + nz * tz;
+            nx -= along * tx;
+            ny -= along * ty;
+            nz -= along * tz;
+            norm = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        }
+        // Предыдущая нормаль почти совпала с касательной (или её нет) - начинаем с оси
+        if (norm < 0.5) {
+            double ax = Math.abs(tx), ay = Math.abs(ty), az = Math.abs(tz);
+            nx = ax <= ay && ax <= az ? 1 : 0;
+            ny = nx == 0 && ay <= az ? 1 : 0;
+            nz = nx == 0 && ny == 0 ? 1 : 0;
+            double along = nx * tx + ny * ty + nz * tz;
+            nx -= along * tx;
+            ny -= along * ty;
+            nz -= along * tz;
+            norm = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        }
+        nx /= norm;
+        ny /= norm;
+        nz /= norm;
+        normals[o] = nx;
+        normals[o + 1] = ny;
+        normals[o + 2] = nz;
+
+        // B = T x N
+        binormals[o] = ty * nz - tz * ny;
+        binormals[o + 1] = tz * nx - tx * nz;
+        binormals[o + 2] = tx * ny - ty * nx;
+    }
+
+    public int size() { return parameters.length; }
+
+    public double getParameter(int i) { return parameters[i]; }
+
+    public Point3D getTangent(int i) { return vectorAt(tangents, i); }
+
+    public Point3D getNormal(int i) { return vectorAt(normals, i); }
+
+    public Point3D getBinormal(int i) { return vectorAt(binormals, i); }
+
+    public double getCurvature(int i) { return curvatures[i]; }
+
+    private static Point3D vectorAt(double[] buffer, int i) {
+        return new Point3D(buffer[3 * i], buffer[3 * i + 1], buffer[3 * i + 2]);
+    }
+}
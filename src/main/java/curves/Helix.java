@@ -11,6 +11,10 @@ public class Helix extends Curve3D {
         this.step = step;
     }
 
+    public double getRadius() { return radius; }
+
+    public double getStep() { return step; }
+
     @Override
     public Point3D getPoint(double t) {
         return new Point3D(radius * Math.cos(t), radius * Math.sin(t), step * t / (2 * Math.PI));
@@ -20,4 +24,23 @@ public class Helix extends Curve3D {
     public Point3D getDerivative(double t) {
         return new Point3D(-radius * Math.sin(t), radius * Math.cos(t), step / (2 * Math.PI));
     }
-}
\ No newline at end of file
+
+    @Override
+    public Point3D getSecondDerivative(double t) {
+        // Подъём линейный по t, поэтому z-компонента обнуляется
+        return new Point3D(-radius * Math.cos(t), -radius * Math.sin(t), 0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Helix other = (Helix) o;
+        return Double.compare(radius, other.radius) == 0 && Double.compare(step, other.step) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(radius) + Double.hashCode(step);
+    }
+}
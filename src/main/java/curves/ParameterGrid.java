@@ -0,0 +1,64 @@
+package curves;
+
+// Равномерная сетка параметра: t_i = start + i * step, i = 0 .. count - 1.
+// t_i вычисляется по индексу, а не накоплением, поэтому не дрейфует на длинных сетках.
+public final class ParameterGrid {
+    private final double start;
+    private final double step;
+    private final int count;
+
+    public ParameterGrid(double start, double step, int count) {
+        if (count < 0) throw new IllegalArgumentException("Count must not be negative");
+        if (!(step > 0) && count > 1) throw new IllegalArgumentException("Step must be positive");
+        this.start = start;
+        this.step = step;
+        this.count = count;
+    }
+
+    // Те же точки, что и цикл for (t = from; t <= to; t += step).
+    // Диапазон больше Integer.MAX_VALUE точек (или с NaN) отклоняется, а не обрезается
+    public static ParameterGrid covering(double from, double to, double step) {
+        if (!(step > 0)) throw new IllegalArgumentException("Step must be positive");
+        if (to < from) return new ParameterGrid(from, step, 0);
+        double count = Math.floor((to - from) / step) + 1;
+        if (!(count <= Integer.MAX_VALUE))
+            throw new IllegalArgumentException("Grid [" + from + ", " + to + "] with step " + step + " has too many points");
+        return new ParameterGrid(from, step, (int) count);
+    }
+
+    public double getStart() { return start; }
+
+    public double getStep() { return step; }
+
+    public int size() { return count; }
+
+    public double getT(int i) {
+        return start + i * step;
+    }
+
+    public double[] toArray() {
+        double[] t = new double[count];
+        for (int i = 0; i < count; i++)
+            t[i] = getT(i);
+        return t;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ParameterGrid other)) return false;
+        return Double.compare(start, other.start) == 0
+                && Double.compare(step, other.step) == 0
+                && count == other.count;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Double.hashCode(start) + Double.hashCode(step)) + count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ParameterGrid[%s + i * %s, %d points]", start, step, count);
+    }
+}
@@ -0,0 +1,45 @@
+package curves;
+
+import javafx.geometry.Point3D;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Плоскость n·p = offset с единичной нормалью n
+public final class Plane {
+    private final Point3D normal;
+    private final double offset;
+
+    public Plane(Point3D normal, double offset) {
+        double length = normal.magnitude();
+        if (length == 0) throw new IllegalArgumentException("Plane normal must be non-zero");
+        this.normal = normal.multiply(1 / length);
+        this.offset = offset / length;
+    }
+
+    public static Plane through(Point3D point, Point3D normal) {
+        return new Plane(normal, normal.dotProduct(point));
+    }
+
+    // Плоскость z = const, например для слоёв спирали
+    public static Plane horizontal(double z) {
+        return new Plane(new Point3D(0, 0, 1), z);
+    }
+
+    // Семейство параллельных плоскостей с шагом spacing вдоль нормали
+    public static List<Plane> stack(Point3D normal, double firstOffset, double spacing, int count) {
+        Point3D unit = normal.normalize();
+        List<Plane> planes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            planes.add(new Plane(unit, firstOffset + i * spacing));
+        return planes;
+    }
+
+    public Point3D getNormal() { return normal; }
+
+    public double getOffset() { return offset; }
+
+    public double signedDistance(Point3D point) {
+        return normal.dotProduct(point) - offset;
+    }
+}
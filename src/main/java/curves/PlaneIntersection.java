@@ -0,0 +1,30 @@
+package curves;
+
+import javafx.geometry.Point3D;
+
+public final class PlaneIntersection {
+    private final int curveIndex;
+    private final int planeIndex;
+    private final double t;
+    private final Point3D point;
+
+    public PlaneIntersection(int curveIndex, int planeIndex, double t, Point3D point) {
+        this.curveIndex = curveIndex;
+        this.planeIndex = planeIndex;
+        this.t = t;
+        this.point = point;
+    }
+
+    public int getCurveIndex() { return curveIndex; }
+
+    public int getPlaneIndex() { return planeIndex; }
+
+    public double getT() { return t; }
+
+    public Point3D getPoint() { return point; }
+
+    @Override
+    public String toString() {
+        return String.format("curve %d x plane %d at t = %.6f %s", curveIndex, planeIndex, t, point);
+    }
+}
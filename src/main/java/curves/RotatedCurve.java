@@ -37,7 +37,15 @@ public class RotatedCurve extends Curve3D {
         return rotatePoint(derivative, rotationAxis, rotationAngle);
     }
 
-    private Point3D rotatePoint(Point3D point, Point3D axis, double angle) {
+    @Override
+    public Point3D getSecondDerivative(double t) {
+        // Поворот линеен, поэтому применяется к производным любого порядка
+        Point3D secondDerivative = baseCurve.getSecondDerivative(t);
+        return rotatePoint(secondDerivative, rotationAxis, rotationAngle);
+    }
+
+    // Формула Родрига; ось должна быть нормирована
+    static Point3D rotatePoint(Point3D point, Point3D axis, double angle) {
         double cos = Math.cos(angle);
         double sin = Math.sin(angle);
         double dot = point.dotProduct(axis);
@@ -50,4 +58,19 @@ public class RotatedCurve extends Curve3D {
 
         return new Point3D(x, y, z);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RotatedCurve other = (RotatedCurve) o;
+        return Double.compare(rotationAngle, other.rotationAngle) == 0
+                && sameVector(rotationAxis, other.rotationAxis)
+                && baseCurve.equals(other.baseCurve);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * baseCurve.hashCode() + vectorHash(rotationAxis)) + Double.hashCode(rotationAngle);
+    }
+}
@@ -0,0 +1,157 @@
+package curves;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// LRU-кэш сэмплов базовых кривых с ограничением по объёму данных.
+//
+// Ключ - базовая кривая под цепочкой декораторов (сравнивается по значению) и сетка t.
+// Для повёрнутой или смещённой кривой из кэша берутся сэмплы её базы, а сверху применяется
+// только свёрнутое аффинное преобразование (см. CurveSampler.Fold). Так тригонометрия
+// считается один раз на каждую различную форму, а не на каждую кривую контейнера.
+// Сэмплы считаются вне блокировки: при гонке одну базу могут посчитать дважды, что безвредно.
+//
+// Точность (SamplePrecision) входит в ключ: float-буферы получают записи базы во float и
+// занимают вдвое меньше места. База округляется до float ещё до преобразования, поэтому
+// погрешность такой записи - до 2^-24 от размера базы плюс округление результата, а не
+// только последнее, как у CurveSampler напрямую.
+public final class SampleCache {
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeInBytes;
+    private long hits;
+    private long misses;
+
+    private record Key(Curve3D base, ParameterGrid grid, SamplePrecision precision) {
+    }
+
+    // Заполнена пара массивов нужной точности, другая - null
+    private record Entry(double[] points, double[] derivatives, float[] points32, float[] derivatives32) {
+        long sizeInBytes() {
+            return points != null
+                    ? (long) (points.length + derivatives.length) * Double.BYTES
+                    : (long) (points32.length + derivatives32.length) * Float.BYTES;
+        }
+    }
+
+    public SampleCache(long maxBytes) {
+        if (maxBytes < 0) throw new IllegalArgumentException("Cache size must not be negative");
+        this.maxBytes = maxBytes;
+    }
+
+    // Точки и производные кривой по сетке в буферы [x0, y0, z0, x1, ...]; derivatives может быть null
+    public void sample(Curve3D curve, ParameterGrid grid, double[] points, double[] derivatives) {
+        int n = grid.size();
+        CurveSampler.checkCapacity(n, points.length, derivatives == null ? -1 : derivatives.length);
+
+        CurveSampler.Fold fold = CurveSampler.Fold.of(curve);
+        Entry base = baseSamples(fold.base(), grid, SamplePrecision.DOUBLE);
+        double[] m = fold.m();
+        double[] bp = base.points();
+        double[] bd = base.derivatives();
+
+        for (int i = 0; i < 3 * n; i += 3) {
+            double x = bp[i], y = bp[i + 1], z = bp[i + 2];
+            points[i] = m[0] * x + m[1] * y + m[2] * z + fold.ox();
+            points[i + 1] = m[3] * x + m[4] * y + m[5] * z + fold.oy();
+            points[i + 2] = m[6] * x + m[7] * y + m[8] * z + fold.oz();
+
+            if (derivatives != null) {
+                double dx = bd[i], dy = bd[i + 1], dz = bd[i + 2];
+                derivatives[i] = m[0] * dx + m[1] * dy + m[2] * dz;
+                derivatives[i + 1] = m[3] * dx + m[4] * dy + m[5] * dz;
+                derivatives[i + 2] = m[6] * dx + m[7] * dy + m[8] * dz;
+            }
+        }
+    }
+
+    // То же во float: записи кэша хранятся во float, см. комментарий к классу
+    public void sample(Curve3D curve, ParameterGrid grid, float[] points, float[] derivatives) {
+        int n = grid.size();
+        CurveSampler.checkCapacity(n, points.length, derivatives == null ? -1 : derivatives.length);
+
+        CurveSampler.Fold fold = CurveSampler.Fold.of(curve);
+        Entry base = baseSamples(fold.base(), grid, SamplePrecision.FLOAT);
+        double[] m = fold.m();
+        float[] bp = base.points32();
+        float[] bd = base.derivatives32();
+
+        for (int i = 0; i < 3 * n; i += 3) {
+            double x = bp[i], y = bp[i + 1], z = bp[i + 2];
+            points[i] = (float) (m[0] * x + m[1] * y + m[2] * z + fold.ox());
+            points[i + 1] = (float) (m[3] * x + m[4] * y + m[5] * z + fold.oy());
+            points[i + 2] = (float) (m[6] * x + m[7] * y + m[8] * z + fold.oz());
+
+            if (derivatives != null) {
+                double dx = bd[i], dy = bd[i + 1], dz = bd[i + 2];
+                derivatives[i] = (float) (m[0] * dx + m[1] * dy + m[2] * dz);
+                derivatives[i + 1] = (float) (m[3] * dx + m[4] * dy + m[5] * dz);
+                derivatives[i + 2] = (float) (m[6] * dx + m[7] * dy + m[8] * dz);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        sizeInBytes = 0;
+    }
+
+    private Entry baseSamples(Curve3D base, ParameterGrid grid, SamplePrecision precision) {
+        Key key = new Key(base, grid, precision);
+        synchronized (this) {
+            Entry cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        double[] t = grid.toArray();
+        Entry computed;
+        if (precision == SamplePrecision.FLOAT) {
+            computed = new Entry(null, null, new float[3 * t.length], new float[3 * t.length]);
+            CurveSampler.sample(base, t, computed.points32(), computed.derivatives32());
+        } else {
+            computed = new Entry(new double[3 * t.length], new double[3 * t.length], null, null);
+            CurveSampler.sample(base, t, computed.points(), computed.derivatives());
+        }
+
+        long size = computed.sizeInBytes();
+        if (size > maxBytes) return computed; // не поместится даже в пустой кэш
+
+        synchronized (this) {
+            Entry raced = entries.putIfAbsent(key, computed);
+            if (raced != null) return raced;
+            sizeInBytes += size;
+            evict();
+        }
+        return computed;
+    }
+
+    // Вытесняем давно не использованные записи, пока объём не уложится в лимит
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (sizeInBytes > maxBytes && it.hasNext()) {
+            sizeInBytes -= it.next().getValue().sizeInBytes();
+            it.remove();
+        }
+    }
+}
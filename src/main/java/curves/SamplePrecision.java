@@ -0,0 +1,20 @@
+package curves;
+
+// Точность хранения сэмплов: вычисления всегда в double, FLOAT лишь округляет результат.
+// Погрешность FLOAT в каждой компоненте - не больше 2^-24 (~6e-8) от наибольшего модуля
+// компоненты вектора, т.е. ~6e-4 при радиусе 10^4 (проверяется в CurveSamplerTest для
+// R = 10^3..10^7); этого достаточно для TriangleMesh, который и так хранит float.
+public enum SamplePrecision {
+    DOUBLE(Double.BYTES),
+    FLOAT(Float.BYTES);
+
+    private final int bytesPerComponent;
+
+    SamplePrecision(int bytesPerComponent) {
+        this.bytesPerComponent = bytesPerComponent;
+    }
+
+    public int getBytesPerComponent() {
+        return bytesPerComponent;
+    }
+}
@@ -0,0 +1,77 @@
+package curves;
+
+import javafx.geometry.Point3D;
+
+// Сэмплы кривой по сетке t, хранящиеся в double или float в зависимости от SamplePrecision
+public final class SampleSet {
+    private final SamplePrecision precision;
+    private final double[] t;
+    private final double[] points64;
+    private final double[] derivatives64;
+    private final float[] points32;
+    private final float[] derivatives32;
+
+    private SampleSet(SamplePrecision precision, double[] t, double[] points64, double[] derivatives64,
+                      float[] points32, float[] derivatives32) {
+        this.precision = precision;
+        this.t = t;
+        this.points64 = points64;
+        this.derivatives64 = derivatives64;
+        this.points32 = points32;
+        this.derivatives32 = derivatives32;
+    }
+
+    public static SampleSet sample(Curve3D curve, double[] t, SamplePrecision precision, boolean withDerivatives) {
+        int components = 3 * t.length;
+        if (precision == SamplePrecision.FLOAT) {
+            float[] points = new float[components];
+            float[] derivatives = withDerivatives ? new float[components] : null;
+            CurveSampler.sample(curve, t, points, derivatives);
+            return new SampleSet(precision, t.clone(), null, null, points, derivatives);
+        }
+        double[] points = new double[components];
+        double[] derivatives = withDerivatives ? new double[components] : null;
+        CurveSampler.sample(curve, t, points, derivatives);
+        return new SampleSet(precision, t.clone(), points, derivatives, null, null);
+    }
+
+    public SamplePrecision getPrecision() { return precision; }
+
+    public int size() { return t.length; }
+
+    public double getT(int i) { return t[i]; }
+
+    public boolean hasDerivatives() { return derivatives64 != null || derivatives32 != null; }
+
+    public Point3D getPoint(int i) {
+        return points32 != null ? vectorAt(points32, i) : vectorAt(points64, i);
+    }
+
+    public Point3D getDerivative(int i) {
+        if (!hasDerivatives()) throw new IllegalStateException("Sample set has no derivatives");
+        return derivatives32 != null ? vectorAt(derivatives32, i) : vectorAt(derivatives64, i);
+    }
+
+    // Для FLOAT - сам внутренний массив (без копии), его нельзя изменять
+    public float[] getPointsAsFloats() {
+        if (points32 != null) return points32;
+        float[] converted = new float[points64.length];
+        for (int i = 0; i < converted.length; i++)
+            converted[i] = (float) points64[i];
+        return converted;
+    }
+
+    // Объём данных сэмплов без учёта заголовков массивов
+    public long sizeInBytes() {
+        long components = 3L * t.length * (hasDerivatives() ? 2 : 1);
+        return components * precision.getBytesPerComponent() + (long) t.length * Double.BYTES;
+    }
+
+    private static Point3D vectorAt(double[] buffer, int i) {
+        return new Point3D(buffer[3 * i], buffer[3 * i + 1], buffer[3 * i + 2]);
+    }
+
+    private static Point3D vectorAt(float[] buffer, int i) {
+        return new Point3D(buffer[3 * i], buffer[3 * i + 1], buffer[3 * i + 2]);
+    }
+}
@@ -34,4 +34,22 @@ public class TranslatedCurve extends Curve3D {
         // Производная не меняется при смещении
         return baseCurve.getDerivative(t);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Point3D getSecondDerivative(double t) {
+        return baseCurve.getSecondDerivative(t);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TranslatedCurve other = (TranslatedCurve) o;
+        return sameVector(offset, other.offset) && baseCurve.equals(other.baseCurve);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * baseCurve.hashCode() + vectorHash(offset);
+    }
+}
@@ -0,0 +1,75 @@
+package curves.journal;
+
+import curves.*;
+import javafx.geometry.Point3D;
+
+import java.nio.ByteBuffer;
+
+// Компактное бинарное представление дерева кривой: тег типа и параметры,
+// декораторы записываются перед своей базовой кривой
+final class CurveCodec {
+    private static final byte CIRCLE = 1;
+    private static final byte ELLIPSE = 2;
+    private static final byte HELIX = 3;
+    private static final byte ROTATED = 4;
+    private static final byte TRANSLATED = 5;
+
+    private CurveCodec() {
+    }
+
+    static int encodedSize(Curve3D curve) {
+        if (curve instanceof Circle) return 1 + Double.BYTES;
+        if (curve instanceof Ellipse || curve instanceof Helix) return 1 + 2 * Double.BYTES;
+        if (curve instanceof RotatedCurve rc) return 1 + 4 * Double.BYTES + encodedSize(rc.getBaseCurve());
+        if (curve instanceof TranslatedCurve tc) return 1 + 3 * Double.BYTES + encodedSize(tc.getBaseCurve());
+        throw new IllegalArgumentException("Unsupported curve type: " + curve.getClass().getSimpleName());
+    }
+
+    static void encode(Curve3D curve, ByteBuffer out) {
+        if (curve instanceof Circle c) {
+            out.put(CIRCLE).putDouble(c.getRadius());
+        } else if (curve instanceof Ellipse e) {
+            out.put(ELLIPSE).putDouble(e.getRadiusX()).putDouble(e.getRadiusY());
+        } else if (curve instanceof Helix h) {
+            out.put(HELIX).putDouble(h.getRadius()).putDouble(h.getStep());
+        } else if (curve instanceof RotatedCurve rc) {
+            out.put(ROTATED);
+            putVector(out, rc.getRotationAxis());
+            out.putDouble(rc.getRotationAngle());
+            encode(rc.getBaseCurve(), out);
+        } else if (curve instanceof TranslatedCurve tc) {
+            out.put(TRANSLATED);
+            putVector(out, tc.getOffset());
+            encode(tc.getBaseCurve(), out);
+        } else {
+            throw new IllegalArgumentException("Unsupported curve type: " + curve.getClass().getSimpleName());
+        }
+    }
+
+    static Curve3D decode(ByteBuffer in) {
+        byte tag = in.get();
+        return switch (tag) {
+            case CIRCLE -> new Circle(in.getDouble());
+            case ELLIPSE -> new Ellipse(in.getDouble(), in.getDouble());
+            case HELIX -> new Helix(in.getDouble(), in.getDouble());
+            case ROTATED -> {
+                Point3D axis = getVector(in);
+                double angle = in.getDouble();
+                yield new RotatedCurve(decode(in), axis, angle);
+            }
+            case TRANSLATED -> {
+                Point3D offset = getVector(in);
+                yield new TranslatedCurve(decode(in), offset);
+            }
+            default -> throw new IllegalArgumentException("Unknown curve tag: " + tag);
+        };
+    }
+
+    private static void putVector(ByteBuffer out, Point3D v) {
+        out.putDouble(v.getX()).putDouble(v.getY()).putDouble(v.getZ());
+    }
+
+    private static Point3D getVector(ByteBuffer in) {
+        return new Point3D(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+}
@@ -0,0 +1,480 @@
+package curves.journal;
+
+import curves.Curve3D;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.*;
+
+// Append-only журнал пользовательских кривых с групповой фиксацией и периодическим снимком.
+//
+// Файлы в каталоге:
+//   curves.journal  - заголовок + записи [int длина][int CRC32C][кривая в формате CurveCodec]
+//   curves.snapshot - заголовок + int число кривых + записи в том же формате,
+//                     затем int число внешних удалений + их записи (с версии 2)
+// Заголовок: [int magic][int версия формата][long поколение]. Версия 1 читается, а при открытии
+// файлы переписываются в текущую версию.
+//
+// Запись ведёт один фоновый поток: всё, что накопилось в очереди, пишется одним write
+// и фиксируется одним force. Когда в журнале набирается COMPACTION_THRESHOLD записей,
+// все кривые переписываются в новый снимок (tmp + атомарное переименование), а журнал
+// начинается заново со следующим поколением. Журнал с поколением меньше, чем у снимка,
+// при восстановлении игнорируется - так сбой между этими шагами не дублирует кривые.
+// Оборванный хвост журнала (сбой посреди записи) отбрасывается по длине и контрольной сумме.
+// Удаление кривой - запись с байтом REMOVAL перед её кодом; при восстановлении она снимает
+// последнюю ранее записанную кривую, равную ей по значению, а в снимок удалённые кривые не попадают.
+// Удаление кривой, которой в журнале нет (встроенной в приложение), - запись с байтом
+// EXTERNAL_REMOVAL; такие кривые копятся в getExternalRemovals и переносятся в снимок.
+public final class CurveJournal implements Closeable {
+    private static final int JOURNAL_MAGIC = 0x434A4E4C; // "CJNL"
+    private static final int SNAPSHOT_MAGIC = 0x43534E50; // "CSNP"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_BATCH = 4096;
+    private static final int COMPACTION_THRESHOLD = 50_000;
+    private static final byte REMOVAL = 0; // теги CurveCodec начинаются с 1
+    private static final byte EXTERNAL_REMOVAL = -1;
+
+    private static final Pending CLOSE = new Pending(null, Kind.ADD, null);
+
+    private final Path journalPath;
+    private final Path snapshotPath;
+    private final FileChannel channel;
+    private final List<Curve3D> restored;
+    private final List<Curve3D> restoredExternalRemovals;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    // Постановка в очередь и закрытие согласованы: после closed ничего не попадает в очередь
+    private final Object lifecycle = new Object();
+    private boolean closed;
+
+    // Состояние ниже меняется только потоком записи (и конструктором до его запуска)
+    private final PersistedCurves persisted;
+    private final List<Curve3D> persistedExternalRemovals;
+    private long generation;
+    private int journalRecords;
+    private boolean broken; // откат не удался, поток записи завершается
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private enum Kind { ADD, REMOVAL, EXTERNAL_REMOVAL }
+
+    private record Pending(Curve3D curve, Kind kind, CompletableFuture<Void> done) {
+    }
+
+    private record Entry(Curve3D curve, Kind kind) {
+    }
+
+    private record Header(int version, long generation) {
+    }
+
+    private CurveJournal(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        journalPath = directory.resolve("curves.journal");
+        snapshotPath = directory.resolve("curves.snapshot");
+
+        persisted = new PersistedCurves();
+        persistedExternalRemovals = new ArrayList<>();
+        Header snapshotHeader = readSnapshot();
+
+        channel = FileChannel.open(journalPath, CREATE, READ, WRITE);
+        try {
+            Header journalHeader = readJournal(snapshotHeader.generation());
+            generation = journalHeader.generation();
+            if (journalRecords >= COMPACTION_THRESHOLD
+                    || snapshotHeader.version() < FORMAT_VERSION || journalHeader.version() < FORMAT_VERSION)
+                compact();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        restored = Collections.unmodifiableList(persisted.toList());
+        restoredExternalRemovals = Collections.unmodifiableList(new ArrayList<>(persistedExternalRemovals));
+
+        writer = new Thread(this::writeLoop, "curve-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Открывает журнал в каталоге и восстанавливает ранее сохранённые кривые
+    public static CurveJournal open(Path directory) throws IOException {
+        return new CurveJournal(directory);
+    }
+
+    // Кривые из снимка и журнала в порядке их добавления
+    public List<Curve3D> getRestoredCurves() {
+        return restored;
+    }
+
+    // Удалённые кривые, которых нет в журнале: приложение снимает их со своих встроенных кривых
+    public List<Curve3D> getExternalRemovals() {
+        return restoredExternalRemovals;
+    }
+
+    // Future завершается, когда запись зафиксирована на диске вместе со своей группой
+    public CompletableFuture<Void> append(Curve3D curve) {
+        return enqueue(curve, Kind.ADD);
+    }
+
+    // Удаляет последнюю сохранённую кривую с теми же параметрами; если такой нет, при
+    // восстановлении запись ничего не меняет. Правка кривой - remove старой и append новой
+    public CompletableFuture<Void> remove(Curve3D curve) {
+        return enqueue(curve, Kind.REMOVAL);
+    }
+
+    // Удаляет кривую, которая не записывалась в журнал (например, встроенную в приложение).
+    // При восстановлении она попадает в getExternalRemovals
+    public CompletableFuture<Void> removeExternal(Curve3D curve) {
+        return enqueue(curve, Kind.EXTERNAL_REMOVAL);
+    }
+
+    private CompletableFuture<Void> enqueue(Curve3D curve, Kind kind) {
+        CurveCodec.encodedSize(curve); // неподдерживаемый тип отклоняется сразу
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        synchronized (lifecycle) {
+            if (closed) throw new IllegalStateException("Journal is closed");
+            queue.add(new Pending(curve, kind, done));
+        }
+        return done;
+    }
+
+    // Дожидается записи всего, что уже поставлено в очередь
+    @Override
+    public void close() throws IOException {
+        synchronized (lifecycle) {
+            if (!closed) {
+                closed = true;
+                queue.add(CLOSE);
+            }
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private Header readSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) return new Header(FORMAT_VERSION, 0);
+
+        try (FileChannel in = FileChannel.open(snapshotPath, READ)) {
+            ByteBuffer data = readFully(in);
+            Header header = readHeader(data, SNAPSHOT_MAGIC, snapshotPath);
+            readSnapshotSection(data, persisted::add);
+            if (header.version() >= 2) readSnapshotSection(data, persistedExternalRemovals::add);
+            return header;
+        }
+    }
+
+    private void readSnapshotSection(ByteBuffer data, Consumer<Curve3D> out) throws IOException {
+        // Снимок пишется атомарно, поэтому повреждение здесь - не оборванная запись
+        if (data.remaining() < Integer.BYTES) throw new IOException("Corrupted snapshot: " + snapshotPath);
+        int count = data.getInt();
+        for (int i = 0; i < count; i++) {
+            Entry entry = readRecord(data);
+            if (entry == null || entry.kind() != Kind.ADD) throw new IOException("Corrupted snapshot: " + snapshotPath);
+            out.accept(entry.curve());
+        }
+    }
+
+    private Header readJournal(long snapshotGeneration) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            resetJournal(snapshotGeneration);
+            return new Header(FORMAT_VERSION, snapshotGeneration);
+        }
+
+        ByteBuffer data = readFully(channel);
+        Header header = readHeader(data, JOURNAL_MAGIC, journalPath);
+        if (header.generation() < snapshotGeneration) {
+            // Записи уже вошли в снимок, сбой произошёл до сброса журнала
+            resetJournal(snapshotGeneration);
+            return new Header(FORMAT_VERSION, snapshotGeneration);
+        }
+
+        int validEnd = data.position();
+        Entry entry;
+        while ((entry = readRecord(data)) != null) {
+            apply(entry.kind(), entry.curve());
+            journalRecords++;
+            validEnd = data.position();
+        }
+
+        if (validEnd < size) channel.truncate(validEnd); // оборванный хвост
+        channel.position(validEnd);
+        return header;
+    }
+
+    private void apply(Kind kind, Curve3D curve) {
+        switch (kind) {
+            case ADD -> persisted.add(curve);
+            case REMOVAL -> persisted.removeLast(curve);
+            case EXTERNAL_REMOVAL -> persistedExternalRemovals.add(curve);
+        }
+    }
+
+    // Файл читается одним блоком; журнал затем может быть усечён, поэтому без map
+    private static ByteBuffer readFully(FileChannel in) throws IOException {
+        long size = in.size();
+        if (size > Integer.MAX_VALUE) throw new IOException("Journal file too large: " + size + " bytes");
+        ByteBuffer data = ByteBuffer.allocate((int) size);
+        in.position(0);
+        while (data.hasRemaining() && in.read(data) >= 0) {
+        }
+        return data.flip();
+    }
+
+    private static Header readHeader(ByteBuffer data, int magic, Path path) throws IOException {
+        if (data.remaining() < HEADER_SIZE || data.getInt() != magic)
+            throw new IOException("Not a curve journal file: " + path);
+        int version = data.getInt();
+        if (version < 1 || version > FORMAT_VERSION)
+            throw new IOException("Unsupported journal format " + version + ": " + path);
+        return new Header(version, data.getLong());
+    }
+
+    // null - запись оборвана или повреждена
+    private static Entry readRecord(ByteBuffer data) {
+        if (data.remaining() < RECORD_HEADER_SIZE) return null;
+        int start = data.position();
+        int length = data.getInt();
+        int checksum = data.getInt();
+        if (length <= 0 || length > data.remaining()) return null;
+
+        ByteBuffer payload = data.slice(data.position(), length);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            data.position(start);
+            return null;
+        }
+
+        try {
+            Kind kind = switch (payload.get(0)) {
+                case REMOVAL -> Kind.REMOVAL;
+                case EXTERNAL_REMOVAL -> Kind.EXTERNAL_REMOVAL;
+                default -> Kind.ADD;
+            };
+            if (kind != Kind.ADD) payload.position(1);
+            Curve3D curve = CurveCodec.decode(payload);
+            if (payload.hasRemaining()) { // длина в заголовке не совпала с разобранной кривой
+                data.position(start);
+                return null;
+            }
+            data.position(data.position() + length);
+            return new Entry(curve, kind);
+        } catch (RuntimeException e) {
+            data.position(start);
+            return null;
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            writeUntilClosed();
+        } finally {
+            // Поток мог остановиться сам (прерывание, неудачный откат) - новые записи не принимаются,
+            // а оставшиеся в очереди завершаются ошибкой, а не висят вечно
+            synchronized (lifecycle) {
+                closed = true;
+            }
+            IllegalStateException stopped = new IllegalStateException("Journal is closed");
+            for (Pending pending; (pending = queue.poll()) != null; )
+                if (pending != CLOSE) pending.done().completeExceptionally(stopped);
+        }
+    }
+
+    private void writeUntilClosed() {
+        List<Pending> batch = new ArrayList<>();
+        boolean closing = false;
+        while (!closing) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            // Всё, что пришло, пока шла предыдущая запись, уходит одной группой
+            queue.drainTo(batch, MAX_BATCH - 1);
+            closing = batch.remove(CLOSE);
+
+            try {
+                writeBatch(batch);
+                for (Pending pending : batch) pending.done().complete(null);
+            } catch (IOException | RuntimeException e) {
+                for (Pending pending : batch) pending.done().completeExceptionally(e);
+                if (broken) closing = true;
+            }
+            batch.clear();
+
+            if (journalRecords >= COMPACTION_THRESHOLD) {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    System.err.println("Curve journal compaction failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // При ошибке файл откатывается к началу группы: иначе следующие группы легли бы за оборванной
+    // записью, и восстановление отбросило бы их вместе с ней
+    private void writeBatch(List<Pending> batch) throws IOException {
+        if (batch.isEmpty()) return;
+
+        buffer.clear();
+        for (Pending pending : batch)
+            putRecord(pending.curve(), pending.kind());
+        buffer.flip();
+        long start = channel.position();
+        try {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch (IOException rollbackError) {
+                e.addSuppressed(rollbackError);
+                broken = true; // хвост файла неизвестен - дальше писать нельзя
+            }
+            throw e;
+        }
+
+        for (Pending pending : batch)
+            apply(pending.kind(), pending.curve());
+        journalRecords += batch.size();
+    }
+
+    private void compact() throws IOException {
+        long newGeneration = generation + 1;
+        Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+
+        try (FileChannel out = FileChannel.open(tmp, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            buffer.clear();
+            putHeader(SNAPSHOT_MAGIC, newGeneration);
+            putSnapshotSection(out, persisted.toList());
+            putSnapshotSection(out, persistedExternalRemovals);
+            drainTo(out);
+            out.force(true);
+        }
+        Files.move(tmp, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        resetJournal(newGeneration);
+        generation = newGeneration;
+    }
+
+    private void putSnapshotSection(FileChannel out, List<Curve3D> curves) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) drainTo(out);
+        buffer.putInt(curves.size());
+        for (Curve3D curve : curves) {
+            if (buffer.remaining() < RECORD_HEADER_SIZE + CurveCodec.encodedSize(curve))
+                drainTo(out);
+            putRecord(curve, Kind.ADD);
+        }
+    }
+
+    private void resetJournal(long newGeneration) throws IOException {
+        channel.truncate(0);
+        buffer.clear();
+        putHeader(JOURNAL_MAGIC, newGeneration);
+        buffer.flip();
+        channel.position(0);
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        channel.force(true);
+        journalRecords = 0;
+    }
+
+    private void putHeader(int magic, long headerGeneration) {
+        buffer.putInt(magic).putInt(FORMAT_VERSION).putLong(headerGeneration);
+    }
+
+    private void putRecord(Curve3D curve, Kind kind) {
+        int length = CurveCodec.encodedSize(curve) + (kind != Kind.ADD ? 1 : 0);
+        ensureCapacity(RECORD_HEADER_SIZE + length);
+
+        int start = buffer.position();
+        buffer.position(start + RECORD_HEADER_SIZE);
+        if (kind == Kind.REMOVAL) buffer.put(REMOVAL);
+        else if (kind == Kind.EXTERNAL_REMOVAL) buffer.put(EXTERNAL_REMOVAL);
+        CurveCodec.encode(curve, buffer);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + RECORD_HEADER_SIZE, length));
+        buffer.putInt(start, length);
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    // Сохранённые кривые в порядке добавления. Кривые сравниваются по значению (equals), и
+    // удаление последней равной стоит O(1): её место в списке пустеет (null), а индекс хранит
+    // позиции копий каждого значения. Когда пустых мест больше половины, список уплотняется
+    private static final class PersistedCurves {
+        private final ArrayList<Curve3D> slots = new ArrayList<>();
+        private final HashMap<Curve3D, ArrayDeque<Integer>> positions = new HashMap<>();
+        private int size;
+
+        void add(Curve3D curve) {
+            positions.computeIfAbsent(curve, key -> new ArrayDeque<>()).addLast(slots.size());
+            slots.add(curve);
+            size++;
+        }
+
+        void removeLast(Curve3D curve) {
+            ArrayDeque<Integer> copies = positions.get(curve);
+            if (copies == null) return;
+            slots.set(copies.pollLast(), null);
+            if (copies.isEmpty()) positions.remove(curve);
+            size--;
+            if (slots.size() > 2 * size + 64) squeeze();
+        }
+
+        List<Curve3D> toList() {
+            List<Curve3D> live = new ArrayList<>(size);
+            for (Curve3D curve : slots)
+                if (curve != null) live.add(curve);
+            return live;
+        }
+
+        private void squeeze() {
+            List<Curve3D> live = toList();
+            slots.clear();
+            positions.clear();
+            size = 0;
+            for (Curve3D curve : live)
+                add(curve);
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (buffer.remaining() >= extra) return;
+        ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + extra));
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+
+    private void drainTo(FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            out.write(buffer);
+        buffer.clear();
+    }
+}
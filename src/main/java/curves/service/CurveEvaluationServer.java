@@ -0,0 +1,291 @@
+package curves.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import curves.Curve3D;
+import javafx.geometry.Point3D;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Встраиваемый HTTP-сервис пакетного вычисления точек и производных кривых.
+// Каждый запрос обрабатывается в собственном виртуальном потоке.
+//
+// POST /evaluate  - тело см. EvaluationRequest; ответ JSON, либо бинарный при
+//                   "Accept: application/octet-stream" или ?format=binary
+// GET  /metrics   - пропускная способность и перцентили задержек
+//
+// Бинарный ответ (big-endian): int число кривых, int число t, byte есть ли производные,
+// затем по каждой кривой для каждого t: x, y, z точки [и x, y, z производной] как double.
+// Ответ пишется chunked-потоком по мере вычисления, без сборки в памяти целиком.
+// Вход проверяется до ответа (конечные числа, ненулевая ось), но конечные параметры всё же
+// могут дать переполнение: такие компоненты в JSON записываются как null.
+// Тело больше MAX_BODY_BYTES отклоняется с 413, лимиты вложенности и числа точек - с 400.
+public final class CurveEvaluationServer {
+    public static final String BINARY_TYPE = "application/octet-stream";
+    static final int MAX_BODY_BYTES = 1 << 20;
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int DEFAULT_PORT = 8085;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ServiceMetrics metrics = new ServiceMetrics();
+
+    public CurveEvaluationServer(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/evaluate", this::handleEvaluate);
+        server.createContext("/metrics", this::handleMetrics);
+    }
+
+    // Порт 0 - любой свободный порт на loopback, удобно для локальных тестов
+    public static CurveEvaluationServer localhost(int port) throws IOException {
+        return new CurveEvaluationServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.close();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void handleEvaluate(HttpExchange exchange) throws IOException {
+        long startNanos = System.nanoTime();
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Use POST");
+                metrics.recordFailure();
+                return;
+            }
+
+            byte[] bytes = readBody(exchange);
+            if (bytes == null) {
+                sendError(exchange, 413, "Request body exceeds " + MAX_BODY_BYTES + " bytes");
+                metrics.recordFailure();
+                return;
+            }
+
+            EvaluationRequest request;
+            try {
+                request = EvaluationRequest.parse(new String(bytes, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                metrics.recordFailure();
+                return;
+            }
+
+            long written = wantsBinary(exchange)
+                    ? writeBinary(exchange, request)
+                    : writeJson(exchange, request);
+            metrics.record(System.nanoTime() - startNanos, request.sampleCount(), written);
+        } catch (IOException e) {
+            // Клиент закрыл соединение посреди ответа
+            metrics.recordFailure();
+        }
+    }
+
+    // null - тело больше лимита. Content-Length проверяется заранее, а chunked-тело
+    // читается не дальше первого лишнего байта
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null) {
+            try {
+                if (Long.parseLong(length.trim()) > MAX_BODY_BYTES) return null;
+            } catch (NumberFormatException ignored) {
+                // некорректный заголовок отклоняет сам HttpServer
+            }
+        }
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readNBytes(MAX_BODY_BYTES + 1);
+            return bytes.length > MAX_BODY_BYTES ? null : bytes;
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = metrics.toJson().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private long writeBinary(HttpExchange exchange, EvaluationRequest request) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", BINARY_TYPE);
+        exchange.sendResponseHeaders(200, 0); // 0 - chunked
+
+        double[] t = request.getT();
+        boolean derivatives = request.includesDerivatives();
+        // DataOutputStream.size() насыщается на Integer.MAX_VALUE, поэтому считаем сами
+        CountingOutputStream counter = new CountingOutputStream(exchange.getResponseBody());
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(counter, CHUNK_SIZE));
+        out.writeInt(request.getCurves().size());
+        out.writeInt(t.length);
+        out.writeByte(derivatives ? 1 : 0);
+
+        for (Curve3D curve : request.getCurves()) {
+            for (double value : t) {
+                writeVector(out, curve.getPoint(value));
+                if (derivatives) writeVector(out, curve.getDerivative(value));
+            }
+        }
+        out.close();
+        return counter.count;
+    }
+
+    private long writeJson(HttpExchange exchange, EvaluationRequest request) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+
+        CountingOutputStream counter = new CountingOutputStream(exchange.getResponseBody());
+        Writer out = new OutputStreamWriter(new BufferedOutputStream(counter, CHUNK_SIZE), StandardCharsets.UTF_8);
+        double[] t = request.getT();
+        List<Curve3D> curves = request.getCurves();
+
+        out.write("{\"curves\":[");
+        for (int c = 0; c < curves.size(); c++) {
+            Curve3D curve = curves.get(c);
+            out.write(c == 0 ? "{\"points\":[" : ",{\"points\":[");
+            for (int i = 0; i < t.length; i++) {
+                if (i > 0) out.write(',');
+                writeVector(out, curve.getPoint(t[i]));
+            }
+            out.write(']');
+            if (request.includesDerivatives()) {
+                out.write(",\"derivatives\":[");
+                for (int i = 0; i < t.length; i++) {
+                    if (i > 0) out.write(',');
+                    writeVector(out, curve.getDerivative(t[i]));
+                }
+                out.write(']');
+            }
+            out.write('}');
+        }
+        out.write("]}");
+        out.close();
+        return counter.count;
+    }
+
+    private static void writeVector(DataOutputStream out, Point3D v) throws IOException {
+        out.writeDouble(v.getX());
+        out.writeDouble(v.getY());
+        out.writeDouble(v.getZ());
+    }
+
+    private static void writeVector(Writer out, Point3D v) throws IOException {
+        out.write('[');
+        writeNumber(out, v.getX());
+        out.write(',');
+        writeNumber(out, v.getY());
+        out.write(',');
+        writeNumber(out, v.getZ());
+        out.write(']');
+    }
+
+    // NaN и бесконечности не являются JSON-числами
+    private static void writeNumber(Writer out, double value) throws IOException {
+        out.write(Double.isFinite(value) ? Double.toString(value) : "null");
+    }
+
+    private static boolean wantsBinary(HttpExchange exchange) {
+        if ("binary".equals(queryParameter(exchange.getRequestURI().getRawQuery(), "format"))) return true;
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        return accept != null && accept.contains(BINARY_TYPE);
+    }
+
+    // Первое значение параметра запроса или null; имена и значения декодируются из %XX
+    private static String queryParameter(String rawQuery, String name) {
+        if (rawQuery == null) return null;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            try {
+                if (name.equals(URLDecoder.decode(key, StandardCharsets.UTF_8)))
+                    return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException ignored) {
+                // битая %-последовательность - такой параметр пропускаем
+            }
+        }
+        return null;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        CurveEvaluationServer server = localhost(port);
+        server.start();
+        System.out.println("Curve evaluation service listening on http://localhost:" + server.getPort());
+
+        // Периодический отчёт о пропускной способности и p99
+        Thread.ofVirtual().start(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(10_000);
+                    System.out.println("Metrics: " + server.getMetrics());
+                }
+            } catch (InterruptedException ignored) {
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+    }
+}
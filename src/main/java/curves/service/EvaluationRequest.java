@@ -0,0 +1,112 @@
+package curves.service;
+
+import curves.*;
+import javafx.geometry.Point3D;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Пакетный запрос: набор кривых и массив параметров t, общий для всех кривых.
+//
+// {"curves": [{"type": "circle", "radius": 2},
+//             {"type": "translated", "offset": [1, 0, 0],
+//              "curve": {"type": "rotated", "axis": [0, 0, 1], "angle": 0.5,
+//                        "curve": {"type": "helix", "radius": 2, "step": 1}}}],
+//  "t": [0, 0.785, 1.57],
+//  "derivatives": true}
+//
+// Все числа должны быть конечными, ось поворота - ненулевой; иначе IllegalArgumentException (400).
+// Так же отклоняются цепочки декораторов глубже MAX_CURVE_DEPTH и запросы больше MAX_SAMPLES точек.
+final class EvaluationRequest {
+    static final int MAX_CURVE_DEPTH = 16;
+    static final long MAX_SAMPLES = 1_000_000;
+
+    private final List<Curve3D> curves;
+    private final double[] t;
+    private final boolean derivatives;
+
+    private EvaluationRequest(List<Curve3D> curves, double[] t, boolean derivatives) {
+        this.curves = curves;
+        this.t = t;
+        this.derivatives = derivatives;
+    }
+
+    static EvaluationRequest parse(String json) {
+        if (!(JsonReader.parse(json) instanceof Map<?, ?> root))
+            throw new IllegalArgumentException("Request must be a JSON object");
+
+        List<Object> specs = list(root, "curves");
+        List<Object> tValues = list(root, "t");
+        if ((long) specs.size() * tValues.size() > MAX_SAMPLES)
+            throw new IllegalArgumentException("Request exceeds " + MAX_SAMPLES + " samples");
+
+        List<Curve3D> curves = new ArrayList<>();
+        for (Object spec : specs)
+            curves.add(parseCurve(spec, 0));
+
+        double[] t = new double[tValues.size()];
+        for (int i = 0; i < t.length; i++)
+            t[i] = toDouble(tValues.get(i), "t[" + i + "]");
+
+        boolean derivatives = !Boolean.FALSE.equals(root.get("derivatives"));
+        return new EvaluationRequest(curves, t, derivatives);
+    }
+
+    private static Curve3D parseCurve(Object spec, int depth) {
+        if (depth >= MAX_CURVE_DEPTH)
+            throw new IllegalArgumentException("Curve nesting deeper than " + MAX_CURVE_DEPTH);
+        if (!(spec instanceof Map<?, ?> curve))
+            throw new IllegalArgumentException("Curve spec must be a JSON object");
+        Object type = curve.get("type");
+
+        return switch (String.valueOf(type)) {
+            case "circle" -> new Circle(number(curve, "radius"));
+            case "ellipse" -> new Ellipse(number(curve, "radiusX"), number(curve, "radiusY"));
+            case "helix" -> new Helix(number(curve, "radius"), number(curve, "step"));
+            case "rotated" -> new RotatedCurve(parseCurve(curve.get("curve"), depth + 1),
+                    axis(curve), number(curve, "angle"));
+            case "translated" -> new TranslatedCurve(parseCurve(curve.get("curve"), depth + 1), vector(curve, "offset"));
+            default -> throw new IllegalArgumentException("Unknown curve type: " + type);
+        };
+    }
+
+    private static double number(Map<?, ?> object, String field) {
+        return toDouble(object.get(field), field);
+    }
+
+    private static Point3D vector(Map<?, ?> object, String field) {
+        List<Object> values = list(object, field);
+        if (values.size() != 3) throw new IllegalArgumentException(field + " must have 3 components");
+        return new Point3D(toDouble(values.get(0), field), toDouble(values.get(1), field), toDouble(values.get(2), field));
+    }
+
+    // Нулевая ось после нормализации превращает поворот в масштабирование
+    private static Point3D axis(Map<?, ?> object) {
+        Point3D axis = vector(object, "axis");
+        if (axis.magnitude() == 0) throw new IllegalArgumentException("axis must be non-zero");
+        return axis;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(Map<?, ?> object, String field) {
+        if (!(object.get(field) instanceof List<?> values))
+            throw new IllegalArgumentException("Missing array field: " + field);
+        return (List<Object>) values;
+    }
+
+    private static double toDouble(Object value, String field) {
+        if (!(value instanceof Double d)) throw new IllegalArgumentException("Expected number: " + field);
+        // 1e400 и подобные разбираются в бесконечность
+        if (!Double.isFinite(d)) throw new IllegalArgumentException("Expected finite number: " + field);
+        return d;
+    }
+
+    List<Curve3D> getCurves() { return curves; }
+
+    double[] getT() { return t; }
+
+    boolean includesDerivatives() { return derivatives; }
+
+    long sampleCount() { return (long) curves.size() * t.length; }
+}
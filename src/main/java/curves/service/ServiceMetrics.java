@@ -0,0 +1,92 @@
+package curves.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Пропускная способность и гистограмма задержек сервиса.
+// Задержки в микросекундах раскладываются по логарифмическим корзинам шагом 5%,
+// поэтому перцентили получаются с погрешностью не больше шага корзины.
+// В гистограмму попадают только успешные запросы: быстрые 400/405 не должны занижать p99.
+public final class ServiceMetrics {
+    private static final double BUCKET_GROWTH = 1.05;
+    private static final int BUCKETS = 600; // 1.05^600 мкс - заведомо больше любого запроса
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+
+    void record(long latencyNanos, long sampleCount, long responseBytes) {
+        requests.increment();
+        samples.add(sampleCount);
+        bytes.add(responseBytes);
+        latencyBuckets.incrementAndGet(bucketOf(latencyNanos));
+    }
+
+    void recordFailure() {
+        failures.increment();
+    }
+
+    public long getRequestCount() { return requests.sum(); }
+
+    public long getFailureCount() { return failures.sum(); }
+
+    public long getSampleCount() { return samples.sum(); }
+
+    public long getByteCount() { return bytes.sum(); }
+
+    public double getRequestsPerSecond() { return requests.sum() / elapsedSeconds(); }
+
+    public double getSamplesPerSecond() { return samples.sum() / elapsedSeconds(); }
+
+    public double getBytesPerSecond() { return bytes.sum() / elapsedSeconds(); }
+
+    // Верхняя граница корзины, в которую попал перцентиль, в миллисекундах
+    public double getLatencyPercentileMillis(double percentile) {
+        long total = 0;
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = latencyBuckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+
+        long rank = (long) Math.ceil(percentile / 100.0 * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.pow(BUCKET_GROWTH, i + 1) / 1000.0;
+        }
+        return Math.pow(BUCKET_GROWTH, BUCKETS) / 1000.0;
+    }
+
+    String toJson() {
+        return String.format(java.util.Locale.ROOT,
+                "{\"requests\":%d,\"failures\":%d,\"samples\":%d,\"requestsPerSecond\":%.2f,"
+                        + "\"samplesPerSecond\":%.2f,\"bytesPerSecond\":%.2f,"
+                        + "\"p50Millis\":%.3f,\"p99Millis\":%.3f,\"p999Millis\":%.3f}",
+                getRequestCount(), getFailureCount(), getSampleCount(), getRequestsPerSecond(),
+                getSamplesPerSecond(), getBytesPerSecond(),
+                getLatencyPercentileMillis(50), getLatencyPercentileMillis(99), getLatencyPercentileMillis(99.9));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.ROOT,
+                "requests=%d (failed %d), %.1f req/s, %.0f samples/s, p50=%.3f ms, p99=%.3f ms",
+                getRequestCount(), getFailureCount(), getRequestsPerSecond(), getSamplesPerSecond(),
+                getLatencyPercentileMillis(50), getLatencyPercentileMillis(99));
+    }
+
+    private double elapsedSeconds() {
+        return Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+    }
+
+    private static int bucketOf(long latencyNanos) {
+        double micros = Math.max(1.0, latencyNanos / 1000.0);
+        int bucket = (int) (Math.log(micros) / Math.log(BUCKET_GROWTH));
+        return Math.min(BUCKETS - 1, bucket);
+    }
+}
@@ -0,0 +1,112 @@
+package curves.visualization;
+
+import curves.*;
+import javafx.geometry.Point3D;
+
+// Параметры кривой в том виде, в каком её собирает форма "Create Curve":
+// примитив, затем поворот вокруг оси, затем смещение
+final class CurveParameters {
+    private final String type;
+    private double radius = 2.0;
+    private double radiusY = 3.0;
+    private double step = 1.0;
+    private double offsetX;
+    private double offsetY;
+    private double offsetZ;
+    private Point3D rotationAxis = new Point3D(1, 0, 0);
+    private double angleDegrees;
+
+    CurveParameters(String type) {
+        this.type = type;
+    }
+
+    // null, если кривая собрана иначе, чем её строит форма создания
+    static CurveParameters of(Curve3D curve) {
+        Curve3D base = curve;
+        Point3D offset = Point3D.ZERO;
+        if (base instanceof TranslatedCurve tc) {
+            offset = tc.getOffset();
+            base = tc.getBaseCurve();
+        }
+        Point3D axis = null;
+        double angle = 0;
+        if (base instanceof RotatedCurve rc) {
+            axis = rc.getRotationAxis();
+            angle = rc.getRotationAngle();
+            base = rc.getBaseCurve();
+        }
+
+        CurveParameters parameters;
+        if (base instanceof Circle circle) {
+            parameters = new CurveParameters("Circle");
+            parameters.radius = circle.getRadius();
+        } else if (base instanceof Ellipse ellipse) {
+            parameters = new CurveParameters("Ellipse");
+            parameters.radius = ellipse.getRadiusX();
+            parameters.radiusY = ellipse.getRadiusY();
+        } else if (base instanceof Helix helix) {
+            parameters = new CurveParameters("Helix");
+            parameters.radius = helix.getRadius();
+            parameters.step = helix.getStep();
+        } else {
+            return null;
+        }
+
+        parameters.offsetX = offset.getX();
+        parameters.offsetY = offset.getY();
+        parameters.offsetZ = offset.getZ();
+        if (axis != null) {
+            parameters.rotationAxis = axis;
+            parameters.angleDegrees = Math.toDegrees(angle);
+        }
+        return parameters;
+    }
+
+    String getType() { return type; }
+
+    double getRadius() { return radius; }
+
+    void setRadius(double radius) { this.radius = radius; }
+
+    double getRadiusY() { return radiusY; }
+
+    void setRadiusY(double radiusY) { this.radiusY = radiusY; }
+
+    double getStep() { return step; }
+
+    void setStep(double step) { this.step = step; }
+
+    double getOffsetX() { return offsetX; }
+
+    void setOffsetX(double offsetX) { this.offsetX = offsetX; }
+
+    double getOffsetY() { return offsetY; }
+
+    void setOffsetY(double offsetY) { this.offsetY = offsetY; }
+
+    double getOffsetZ() { return offsetZ; }
+
+    void setOffsetZ(double offsetZ) { this.offsetZ = offsetZ; }
+
+    void setRotationAxis(Point3D rotationAxis) { this.rotationAxis = rotationAxis; }
+
+    double getAngleDegrees() { return angleDegrees; }
+
+    void setAngleDegrees(double angleDegrees) { this.angleDegrees = angleDegrees; }
+
+    // Новая неизменяемая кривая; поворот и смещение добавляются, только если они ненулевые
+    Curve3D build() {
+        Curve3D curve = switch (type) {
+            case "Circle" -> new Circle(radius);
+            case "Ellipse" -> new Ellipse(radius, radiusY);
+            case "Helix" -> new Helix(radius, step);
+            default -> throw new IllegalArgumentException("Unknown curve type: " + type);
+        };
+
+        if (angleDegrees != 0)
+            curve = new RotatedCurve(curve, rotationAxis, Math.toRadians(angleDegrees));
+        if (offsetX != 0 || offsetY != 0 || offsetZ != 0)
+            curve = new TranslatedCurve(curve, new Point3D(offsetX, offsetY, offsetZ));
+        return curve;
+    }
+}
@@ -0,0 +1,111 @@
+package curves.visualization;
+
+import curves.Curve3D;
+import curves.CurveSampler;
+import curves.FrenetFrames;
+import curves.ParameterGrid;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.CullFace;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+// Трубка вокруг кривой для редактора параметров: кольцо из SIDES вершин в плоскости (N, B)
+// в каждой точке сетки. Грани строятся один раз, а update перезаписывает координаты вершин
+// в том же массиве точек меша - при перетаскивании слайдера не создаются ни узлы сцены,
+// ни массивы, и перерисовывается только этот меш.
+final class CurveTubeMesh {
+    private static final int SIDES = 8;
+    private static final double TUBE_RADIUS = 1.0;
+
+    private final double scale;
+    private final double[] t;
+    private final float[] centers;
+    private final double[] tangents;
+    private final double[] normals;
+    private final double[] binormals;
+    private final double[] curvatures;
+    private final double[] ringCos = new double[SIDES];
+    private final double[] ringSin = new double[SIDES];
+    private final float[] vertices;
+    private final TriangleMesh mesh = new TriangleMesh();
+    private final MeshView view;
+
+    CurveTubeMesh(Curve3D curve, ParameterGrid grid, double scale, Color color) {
+        this.scale = scale;
+        t = grid.toArray();
+        int n = t.length;
+        centers = new float[3 * n];
+        tangents = new double[3 * n];
+        normals = new double[3 * n];
+        binormals = new double[3 * n];
+        curvatures = new double[n];
+        vertices = new float[3 * n * SIDES];
+
+        for (int k = 0; k < SIDES; k++) {
+            double angle = 2 * Math.PI * k / SIDES;
+            ringCos[k] = Math.cos(angle);
+            ringSin[k] = Math.sin(angle);
+        }
+
+        mesh.getTexCoords().addAll(0f, 0f);
+        int[] faces = new int[Math.max(0, n - 1) * SIDES * 12];
+        int f = 0;
+        for (int i = 0; i + 1 < n; i++) {
+            for (int k = 0; k < SIDES; k++) {
+                int a = i * SIDES + k;
+                int b = i * SIDES + (k + 1) % SIDES;
+                int c = a + SIDES;
+                int d = b + SIDES;
+                // Вершины и индекс единственной текстурной координаты
+                f = putFace(faces, f, a, c, b);
+                f = putFace(faces, f, b, c, d);
+            }
+        }
+        mesh.getFaces().setAll(faces);
+
+        fillVertices(curve);
+        mesh.getPoints().setAll(vertices);
+
+        view = new MeshView(mesh);
+        view.setMaterial(new PhongMaterial(color));
+        view.setCullFace(CullFace.NONE); // ориентация колец зависит от направления нормали
+    }
+
+    MeshView getView() {
+        return view;
+    }
+
+    // Пересэмплирует кривую и обновляет вершины на месте
+    void update(Curve3D curve) {
+        fillVertices(curve);
+        mesh.getPoints().set(0, vertices, 0, vertices.length);
+    }
+
+    private void fillVertices(Curve3D curve) {
+        CurveSampler.sample(curve, t, centers, null);
+        FrenetFrames.evaluate(curve, t, tangents, normals, binormals, curvatures);
+
+        int v = 0;
+        for (int i = 0; i < t.length; i++) {
+            int o = 3 * i;
+            double cx = centers[o] * scale, cy = centers[o + 1] * scale, cz = centers[o + 2] * scale;
+            for (int k = 0; k < SIDES; k++) {
+                double u = TUBE_RADIUS * ringCos[k], w = TUBE_RADIUS * ringSin[k];
+                vertices[v++] = (float) (cx + u * normals[o] + w * binormals[o]);
+                vertices[v++] = (float) (cy + u * normals[o + 1] + w * binormals[o + 1]);
+                vertices[v++] = (float) (cz + u * normals[o + 2] + w * binormals[o + 2]);
+            }
+        }
+    }
+
+    private static int putFace(int[] faces, int f, int p0, int p1, int p2) {
+        faces[f++] = p0;
+        faces[f++] = 0;
+        faces[f++] = p1;
+        faces[f++] = 0;
+        faces[f++] = p2;
+        faces[f++] = 0;
+        return f;
+    }
+}
@@ -1,16 +1,20 @@
 package curves.visualization;
 
 import curves.*;
+import curves.journal.CurveJournal;
 import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Point3D;
 import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.PerspectiveCamera;
 import javafx.scene.Scene;
 import javafx.scene.SubScene;
@@ -29,14 +33,33 @@ import javafx.util.Duration;
 import javafx.scene.shape.Cylinder;
 import javafx.scene.paint.PhongMaterial;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.DoubleConsumer;
+import java.util.function.Supplier;
 
 
 public class MainApplication extends Application {
 
     private double cameraDistance = 200;
-    private List<Curve3D> curves;
-    private final List<Curve3D> userCurves = new ArrayList<>(); // Отдельный список для пользовательских кривых
+    // Исходные и пользовательские кривые; добавлять можно из любого потока
+    private final CurveRegistry curveRegistry = new CurveRegistry();
+    // Равные кривые в реестре - один объект, а сэмплы их базовых форм считаются один раз
+    private final CurveInterner curveInterner = new CurveInterner();
+    private final SampleCache sampleCache = new SampleCache(16L << 20);
+    private int fixedCurveCount; // встроенные кривые, которые ещё в реестре
+    // Пользовательские кривые и число их копий; правка остальных - правка встроенной кривой
+    private final Map<Curve3D, Integer> userCopies = new HashMap<>();
+    private CurveJournal curveJournal; // null, если журнал недоступен
+    // Журнал открывается и восстанавливается в фоне
+    private final CompletableFuture<RestoredJournal> journalReplay = new CompletableFuture<>();
+    // Действия с журналом и userCopies, сделанные до конца восстановления, ждут здесь (только FX-поток)
+    private final List<Runnable> restoreBacklog = new ArrayList<>();
+    private boolean journalRestored;
     private Group visualizationRoot;
     private PerspectiveCamera camera;
     private Rotate xRotate;
@@ -44,34 +67,163 @@ public class MainApplication extends Application {
     private Timeline rotationTimeline;
     private boolean isAnimating = false;
     private Label infoLabel;
+    private Label curvesCountLabel;
+    private Label circlesLabel;
+    // Выборка окружностей ведётся по дельтам в отдельном потоке; поля ниже - только его
+    private final ExecutorService circlesExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "circle-info");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private CircleSubset circleSubset;
+    private long circleSubsetVersion = -1;
+    private TableView<CalculationResult> resultsTable;
+    private String shownCurveType = "Helix";
+    private final Map<Curve3D, Group> curveNodes = new IdentityHashMap<>(); // точки каждой показанной кривой
+    private long resultsTableVersion = -1; // версия реестра, по которой построена таблица
+    private AnimationTimer geometryLoader;
+    private final ArrayDeque<Curve3D> pendingDots = new ArrayDeque<>(); // кривые, чьи точки ещё не построены
+    // Что из очереди ещё нужно построить: удалённая кривая уходит только отсюда, её элемент очереди пропускается
+    private final Set<Curve3D> pendingDotsLive = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Сколько слотов реестра занимает каждый объект кривой (равные кривые интернированы в один объект)
+    private final Map<Curve3D, Integer> liveCopies = new IdentityHashMap<>();
+    private StartupTimer startupTimer;
+    private VBox editorPanel;
+    private Curve3D editedCurve; // кривая в реестре, которую сейчас показывает меш редактора
+    private Curve3D pendingCurve; // предпросмотр, ещё не записанный в реестр
+    private CurveParameters editParameters;
+    private CurveTubeMesh editMesh;
+
+    // Сколько времени кадра можно отдать на построение точек, чтобы окно оставалось отзывчивым
+    private static final long GEOMETRY_FRAME_BUDGET_NANOS = 8_000_000;
+    // Сколько окружностей перечислять в подписи; сумма радиусов считается по всем
+    private static final int MAX_LISTED_CIRCLES = 50;
+    // Точки кривой на экране: t от 0 до 4π с шагом 0.07
+    private static final ParameterGrid DOT_GRID = ParameterGrid.covering(0, 4 * Math.PI, 0.07);
 
     @Override
     public void start(Stage primaryStage) {
+        startupTimer = new StartupTimer();
         primaryStage.setTitle("3D Curve Analyzer with Rotation");
         System.out.println("=== Curve Analyzer v2.0 ===");
 
         // Генерируем кривые
-        curves = generateFixedCurves();
+        List<Curve3D> curves = generateFixedCurves();
         System.out.println("Generated " + curves.size() + " curves:");
         for (Curve3D c : curves)
             System.out.println(" - " + c.getClass().getSimpleName());
-
-        // Создаем TabPane (вкладки)
+        curves.replaceAll(curveInterner::intern);
+        curveRegistry.addAll(curves);
+        fixedCurveCount = curves.size();
+        for (Curve3D curve : curves)
+            liveCopies.merge(curve, 1, Integer::sum);
+
+        // Изменения реестра могут прийти из фоновых потоков - применяем их в FX-потоке
+        curveRegistry.addListener(change -> Platform.runLater(() -> applyCurveChange(change)));
+
+        // Пользовательские кривые прошлых сессий восстанавливаются в фоне и приходят слушателю дельтой,
+        // окно показывается сразу
+        journalReplay.thenAccept(journal -> Platform.runLater(() -> onJournalRestored(journal)));
+        Thread replay = new Thread(this::restoreJournal, "curve-journal-replay");
+        replay.setDaemon(true);
+        replay.start();
+
+        // Создаем TabPane (вкладки); содержимое строится при первом выборе вкладки
         TabPane tabPane = new TabPane();
-        Tab visualizationTab = new Tab("3D Visualization", createVisualizationContent());
-        Tab calculationsTab = new Tab("Calculations", createCalculationsContent());
-        Tab creationTab = new Tab("Create Curve", createCreationContent());
-
-        visualizationTab.setClosable(false);
-        calculationsTab.setClosable(false);
-        creationTab.setClosable(false);
+        Tab visualizationTab = createLazyTab("3D Visualization", this::createVisualizationContent);
+        Tab calculationsTab = createLazyTab("Calculations", this::createCalculationsContent);
+        Tab creationTab = createLazyTab("Create Curve", this::createCreationContent);
 
         tabPane.getTabs().addAll(visualizationTab, calculationsTab, creationTab);
+        tabPane.getSelectionModel().selectedItemProperty().addListener((obs, oldTab, newTab) -> ensureTabContent(newTab));
 
         BorderPane mainLayout = new BorderPane(tabPane);
         Scene scene = new Scene(mainLayout, 1200, 840);
         primaryStage.setScene(scene);
+        startupTimer.trackFirstFrame(scene);
         primaryStage.show();
+
+        // Окно уже на экране с заглушкой - строим выбранную вкладку в следующем цикле FX-потока
+        Platform.runLater(() -> ensureTabContent(tabPane.getSelectionModel().getSelectedItem()));
+    }
+
+    // Результат фонового восстановления; journal == null - журнал недоступен
+    private record RestoredJournal(CurveJournal journal, List<Curve3D> userCurves, int removedFixedCurves) {
+    }
+
+    private void restoreJournal() {
+        RestoredJournal result = new RestoredJournal(null, List.of(), 0);
+        try {
+            long replayStart = System.nanoTime();
+            CurveJournal journal = CurveJournal.open(Path.of(System.getProperty("user.home"), ".curves"));
+            // Сначала снимаем отредактированные в прошлых сессиях встроенные кривые, потом добавляем
+            // пользовательские - иначе удаление могло бы попасть в равную им пользовательскую копию
+            int removedFixed = 0;
+            for (Curve3D curve : journal.getExternalRemovals()) {
+                Curve3D builtIn = curveInterner.intern(curve);
+                if (curveRegistry.remove(builtIn)) {
+                    curveInterner.release(builtIn); // ссылка, взятая при добавлении встроенной кривой
+                    removedFixed++;
+                }
+                curveInterner.release(builtIn);
+            }
+            List<Curve3D> userCurves = journal.getRestoredCurves().stream().map(curveInterner::intern).toList();
+            curveRegistry.addAll(userCurves);
+            result = new RestoredJournal(journal, userCurves, removedFixed);
+            System.out.printf("Restored %d user curves in %.1f ms%n",
+                    userCurves.size(), (System.nanoTime() - replayStart) / 1e6);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Curve journal unavailable, user curves will not be saved: " + e.getMessage());
+        } finally {
+            journalReplay.complete(result);
+        }
+    }
+
+    private void onJournalRestored(RestoredJournal restored) {
+        if (journalRestored) return; // stop() мог дождаться восстановления раньше
+        curveJournal = restored.journal();
+        fixedCurveCount -= restored.removedFixedCurves();
+        for (Curve3D curve : restored.userCurves())
+            userCopies.merge(curve, 1, Integer::sum);
+        journalRestored = true;
+
+        // Действия пользователя во время восстановления применяются в исходном порядке
+        for (Runnable action : restoreBacklog)
+            action.run();
+        restoreBacklog.clear();
+        if (curvesCountLabel != null) curvesCountLabel.setText(buildCurvesCountText());
+    }
+
+    // Выполняет действие сейчас или, если журнал ещё восстанавливается, сразу после этого
+    private void afterRestore(Runnable action) {
+        if (journalRestored) action.run();
+        else restoreBacklog.add(action);
+    }
+
+    private Tab createLazyTab(String title, Supplier<Node> contentFactory) {
+        Label placeholder = new Label("Loading...");
+        placeholder.setStyle("-fx-text-fill: gray; -fx-font-size: 14px;");
+
+        Tab tab = new Tab(title, new BorderPane(placeholder));
+        tab.setClosable(false);
+        tab.setUserData(contentFactory);
+        return tab;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void ensureTabContent(Tab tab) {
+        if (tab != null && tab.getUserData() instanceof Supplier<?> contentFactory) {
+            tab.setUserData(null);
+            tab.setContent(((Supplier<Node>) contentFactory).get());
+        }
+    }
+
+    @Override
+    public void stop() throws IOException {
+        // Окно закрыли во время восстановления - дожидаемся его, чтобы не потерять отложенные записи
+        onJournalRestored(journalReplay.join());
+        circlesExecutor.shutdownNow();
+        if (curveJournal != null) curveJournal.close();
     }
 
     // Метод для фиксированной генерации кривых при запуске
@@ -86,15 +238,107 @@ public class MainApplication extends Application {
         return fixedCurves;
     }
 
-    // Метод для получения всех кривых (исходные + пользовательские)
+    // Метод для получения всех кривых (исходные + пользовательские), снимок без копирования
     private List<Curve3D> getAllCurves() {
-        List<Curve3D> allCurves = new ArrayList<>();
-        allCurves.addAll(curves);
-        allCurves.addAll(userCurves);
-        return allCurves;
+        return curveRegistry.snapshot();
+    }
+
+    // Доступ для RenderingBenchmark: синтетические контейнеры и вращение сцены
+    CurveRegistry getCurveRegistry() {
+        return curveRegistry;
+    }
+
+    Group getVisualizationRoot() {
+        return visualizationRoot;
+    }
+
+    // Точки ещё строятся порциями по кадрам
+    boolean isGeometryLoading() {
+        return geometryLoader != null;
+    }
+
+    private int getUserCurveCount() {
+        return getAllCurves().size() - fixedCurveCount;
+    }
+
+    // Инкрементальное обновление вкладок по дельте реестра
+    private void applyCurveChange(CurveRegistry.Change change) {
+        // Дельты приходят подряд, поэтому счётчики копий повторяют снимок без его просмотра
+        for (Curve3D curve : change.getAdded())
+            liveCopies.merge(curve, 1, Integer::sum);
+        for (Curve3D curve : change.getRemoved())
+            liveCopies.computeIfPresent(curve, (c, copies) -> copies > 1 ? copies - 1 : null);
+
+        if (visualizationRoot != null) {
+            for (Curve3D curve : change.getRemoved()) {
+                Group nodes = curveNodes.get(curve);
+                // Равные кривые интернированы в один объект: точки нужны, пока жива хоть одна копия
+                if (liveCopies.containsKey(curve)) {
+                    if (nodes != null) nodes.setVisible(curve != editedCurve);
+                } else {
+                    pendingDotsLive.remove(curve);
+                    if (nodes != null) {
+                        curveNodes.remove(curve);
+                        visualizationRoot.getChildren().remove(nodes);
+                    }
+                }
+            }
+            // Точки новых кривых строятся порциями по кадрам: восстановленный журнал может прийти одной
+            // большой дельтой
+            queueDots(change.getAdded());
+            startGeometryLoader();
+        }
+
+        // Таблица могла быть построена позже, чем произошло изменение
+        if (resultsTable != null && change.getToVersion() > resultsTableVersion) {
+            if (change.getFromVersion() >= resultsTableVersion) {
+                applyTableChange(resultsTable.getItems(), change);
+                resultsTableVersion = change.getToVersion();
+            } else {
+                updateResultsTable(resultsTable);
+            }
+        }
+
+        if (circlesLabel != null) updateCirclesInfo(change);
+        if (curvesCountLabel != null) curvesCountLabel.setText(buildCurvesCountText());
+    }
+
+    // Строки идут в порядке слотов реестра. Удаление снимает первый живой слот объекта, а добавления
+    // (в том числе замена при правке) уходят в конец, поэтому у каждой удалённой кривой убирается её
+    // первая строка, новые строки дописываются. Пересчитываются только новые кривые, строки
+    // снимаются одним проходом и одним событием списка
+    private void applyTableChange(ObservableList<CalculationResult> rows, CurveRegistry.Change change) {
+        if (!change.getRemoved().isEmpty()) {
+            Map<Curve3D, Integer> toRemove = new IdentityHashMap<>();
+            for (Curve3D curve : change.getRemoved())
+                toRemove.merge(curve, 1, Integer::sum);
+            Set<CalculationResult> removedRows = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (CalculationResult row : rows) {
+                if (toRemove.isEmpty()) break;
+                if (toRemove.computeIfPresent(row.getCurve(), (c, n) -> n - 1) == null) continue;
+                removedRows.add(row);
+                toRemove.remove(row.getCurve(), 0);
+            }
+            rows.removeAll(removedRows);
+        }
+
+        List<CalculationResult> appended = new ArrayList<>(change.getAdded().size());
+        for (Curve3D curve : change.getAdded())
+            appended.add(calculateResult(curve));
+        rows.addAll(appended);
+    }
+
+    private void queueDots(Collection<Curve3D> curves) {
+        pendingDots.addAll(curves);
+        pendingDotsLive.addAll(curves);
+    }
+
+    BorderPane createVisualizationContent() {
+        return createVisualizationContent("Helix", true);
     }
 
-    private BorderPane createVisualizationContent() {
+    // RenderingBenchmark строит сцену синхронно, чтобы замер включал ровно один путь построения точек
+    BorderPane createVisualizationContent(String curveType, boolean streamed) {
         BorderPane visualizationPane = new BorderPane();
 
         visualizationRoot = new Group();
@@ -120,7 +364,7 @@ public class MainApplication extends Application {
         BorderPane.setMargin(infoLabel, new Insets(10, 0, 5, 0));
 
         // По умолчанию показываем спирали
-        showCurvesByType("Helix");
+        showCurvesByType(curveType, streamed);
 
         // Добавляем оси координат
         addCoordinateAxes(visualizationRoot);
@@ -135,17 +379,22 @@ public class MainApplication extends Application {
         buttonContainer.getChildren().add(bgPicker);
 
         // Информация о количестве кривых (перемещаем вниз)
-        Label curvesCountLabel = new Label("Curves loaded: " + getAllCurves().size() + " (User: " + userCurves.size() + ")");
+        curvesCountLabel = new Label(buildCurvesCountText());
         curvesCountLabel.setStyle("-fx-font-size: 12px;");
 
         VBox bottomBox = new VBox(buttonContainer, curvesCountLabel);
         bottomBox.setPadding(new Insets(5));
         visualizationPane.setBottom(bottomBox);
+        visualizationPane.setRight(createEditorPanel());
 
         visualizationPane.setCenter(group3DContainer);
         return visualizationPane;
     }
 
+    private String buildCurvesCountText() {
+        return "Curves loaded: " + getAllCurves().size() + " (User: " + getUserCurveCount() + ")";
+    }
+
     // Создание интерфейса для добавления кривых с поворотом
     private BorderPane createCreationContent() {
         BorderPane creationPane = new BorderPane();
@@ -292,7 +541,7 @@ public class MainApplication extends Application {
         // Обработчик кнопки создания
         createButton.setOnAction(e -> {
             try {
-                Curve3D newCurve = createCurveFromInput(
+                Curve3D newCurve = curveInterner.intern(createCurveFromInput(
                         typeComboBox.getValue(),
                         radiusField.getText(),
                         radiusYField.getText(),
@@ -305,9 +554,13 @@ public class MainApplication extends Application {
                         cxField.getText(),
                         cyField.getText(),
                         czField.getText()
-                );
+                ));
 
-                userCurves.add(newCurve);
+                curveRegistry.add(newCurve);
+                afterRestore(() -> {
+                    userCopies.merge(newCurve, 1, Integer::sum);
+                    if (curveJournal != null) curveJournal.append(newCurve).whenComplete(this::reportSaveError);
+                });
                 statusLabel.setText("✓ Curve created successfully!");
                 statusLabel.setStyle("-fx-text-fill: green;");
 
@@ -343,38 +596,20 @@ public class MainApplication extends Application {
                                          String stepStr, String xStr, String yStr, String zStr,
                                          String axisType, String angleStr, String customXStr,
                                          String customYStr, String customZStr) {
-        double radius = Double.parseDouble(radiusStr);
-        double x = Double.parseDouble(xStr);
-        double y = Double.parseDouble(yStr);
-        double z = Double.parseDouble(zStr);
-        double angleDegrees = Double.parseDouble(angleStr);
-        double angleRadians = Math.toRadians(angleDegrees);
-
-        Curve3D baseCurve = switch (type) {
-            case "Circle" -> new Circle(radius);
-            case "Ellipse" -> {
-                double radiusY = Double.parseDouble(radiusYStr);
-                yield new Ellipse(radius, radiusY);
-            }
-            case "Helix" -> {
-                double step = Double.parseDouble(stepStr);
-                yield new Helix(radius, step);
-            }
-            default -> throw new IllegalArgumentException("Unknown curve type: " + type);
-        };
-
-        // Применяем поворот если угол не нулевой
-        if (angleDegrees != 0) {
-            Point3D rotationAxis = getRotationAxis(axisType, customXStr, customYStr, customZStr);
-            baseCurve = new RotatedCurve(baseCurve, rotationAxis, angleRadians);
-        }
-
-        // Применяем смещение если нужно
-        if (x != 0 || y != 0 || z != 0) {
-            baseCurve = new TranslatedCurve(baseCurve, new Point3D(x, y, z));
-        }
-
-        return baseCurve;
+        CurveParameters parameters = new CurveParameters(type);
+        parameters.setRadius(Double.parseDouble(radiusStr));
+        if ("Ellipse".equals(type)) parameters.setRadiusY(Double.parseDouble(radiusYStr));
+        if ("Helix".equals(type)) parameters.setStep(Double.parseDouble(stepStr));
+        parameters.setOffsetX(Double.parseDouble(xStr));
+        parameters.setOffsetY(Double.parseDouble(yStr));
+        parameters.setOffsetZ(Double.parseDouble(zStr));
+
+        // Поворот применяется, только если угол не нулевой
+        parameters.setAngleDegrees(Double.parseDouble(angleStr));
+        if (parameters.getAngleDegrees() != 0)
+            parameters.setRotationAxis(getRotationAxis(axisType, customXStr, customYStr, customZStr));
+
+        return parameters.build();
     }
 
     //  Получение оси вращения
@@ -462,52 +697,295 @@ public class MainApplication extends Application {
         return buttonBox;
     }
 
+    // Точки строятся порциями по кадрам, чтобы большой контейнер не блокировал FX-поток
     private void showCurvesByType(String curveType) {
+        showCurvesByType(curveType, true);
+    }
+
+    void showCurvesByType(String curveType, boolean streamed) {
+        shownCurveType = curveType;
+        if (geometryLoader != null) {
+            geometryLoader.stop();
+            geometryLoader = null;
+        }
+        pendingDots.clear();
+        pendingDotsLive.clear();
+        infoLabel.setText("Hover over any point to see coordinates");
+        commitEdit();
+        stopEditing(); // меш уходит вместе с остальной сценой
         visualizationRoot.getChildren().clear();
+        curveNodes.clear();
         addCoordinateAxes(visualizationRoot);
 
-        Random rand = new Random();
         List<Curve3D> allCurves = getAllCurves();
 
-        for (Curve3D curve : allCurves) {
-            String actualClassName = getActualCurveType(curve);
+        if (!streamed) {
+            Random rand = new Random();
+            for (Curve3D curve : allCurves)
+                addCurveIfShown(curve, curveType, rand);
+            onGeometryLoaded();
+            return;
+        }
+
+        queueDots(allCurves);
+        if (pendingDotsLive.isEmpty()) onGeometryLoaded();
+        else startGeometryLoader();
+    }
+
+    // Разбирает очередь pendingDots, пока в ней есть что строить; новые кривые можно добавлять на ходу
+    private void startGeometryLoader() {
+        if (geometryLoader != null || pendingDotsLive.isEmpty()) return;
+
+        geometryLoader = new AnimationTimer() {
+            private final Random rand = new Random();
+            private int loaded = 0;
+            private boolean progressShown = false;
+
+            @Override
+            public void handle(long now) {
+                long deadline = System.nanoTime() + GEOMETRY_FRAME_BUDGET_NANOS;
+                while (!pendingDotsLive.isEmpty() && System.nanoTime() < deadline) {
+                    Curve3D curve = pendingDots.poll();
+                    if (!pendingDotsLive.remove(curve)) continue; // удалена или уже построена
+                    if (curve != editedCurve) addCurveIfShown(curve, shownCurveType, rand);
+                    loaded++;
+                }
+
+                if (!pendingDotsLive.isEmpty()) {
+                    infoLabel.setText(String.format("Loading curves... %d / %d", loaded, loaded + pendingDotsLive.size()));
+                    progressShown = true;
+                    return;
+                }
 
-            if ("All".equals(curveType) || actualClassName.equals(curveType)) {
-                Color curveColor = Color.color(rand.nextDouble(), rand.nextDouble(), rand.nextDouble());
+                pendingDots.clear(); // остались только пропущенные элементы
+                stop();
+                geometryLoader = null;
+                // Короткая дельта укладывается в кадр - подсказку или ошибку редактора не затираем
+                if (progressShown) infoLabel.setText("Hover over any point to see coordinates");
+                onGeometryLoaded();
+            }
+        };
+        geometryLoader.start();
+    }
 
-                for (double t = 0; t <= 4 * Math.PI; t += 0.07) {
-                    Point3D point = curve.getPoint(t);
-                    Point3D derivative = curve.getDerivative(t);
+    private void addCurveIfShown(Curve3D curve, String curveType, Random rand) {
+        String actualClassName = getActualCurveType(curve);
 
-                    Sphere dot = new Sphere(2.0); // размер
-                    dot.setTranslateX(point.getX() * 15);
-                    dot.setTranslateY(point.getY() * 15);
-                    dot.setTranslateZ(point.getZ() * 15);
-                    dot.setMaterial(new PhongMaterial(curveColor));
-                    dot.setPickOnBounds(true); // для корректного наведения
+        if (("All".equals(curveType) || actualClassName.equals(curveType)) && !curveNodes.containsKey(curve)) {
+            Color curveColor = Color.color(rand.nextDouble(), rand.nextDouble(), rand.nextDouble());
+            addCurveDots(curve, curveColor);
+        }
+    }
 
-                    final double finalT = t;
-                    final Point3D finalPoint = point;
-                    final Point3D finalDerivative = derivative;
-                    final String finalClassName = actualClassName;
+    private void onGeometryLoaded() {
+        if (startupTimer != null) {
+            startupTimer.markInteractive();
+            startupTimer = null;
+        }
+    }
 
-                    dot.setOnMouseEntered(event -> infoLabel.setText(String.format(
-                            "%s | t = %.2f | Point: (%.2f, %.2f, %.2f)",
-                            finalClassName, finalT,
-                            finalPoint.getX(), finalPoint.getY(), finalPoint.getZ(),
-                            finalDerivative.getX(), finalDerivative.getY(), finalDerivative.getZ()
-                    )));
+    // Точки одной кривой собираются в отдельную группу, чтобы её можно было убрать без перестроения сцены
+    private void addCurveDots(Curve3D curve, Color curveColor) {
+        String actualClassName = getActualCurveType(curve);
+        Group curveGroup = new Group();
+        PhongMaterial material = new PhongMaterial(curveColor);
+
+        // Для точек на экране и подписи с двумя знаками хватает float, записи кэша вдвое меньше
+        float[] points = new float[3 * DOT_GRID.size()];
+        float[] derivatives = new float[3 * DOT_GRID.size()];
+        sampleCache.sample(curve, DOT_GRID, points, derivatives);
+
+        for (int i = 0; i < DOT_GRID.size(); i++) {
+            Point3D point = new Point3D(points[3 * i], points[3 * i + 1], points[3 * i + 2]);
+            Point3D derivative = new Point3D(derivatives[3 * i], derivatives[3 * i + 1], derivatives[3 * i + 2]);
+
+            Sphere dot = new Sphere(2.0); // размер
+            dot.setTranslateX(point.getX() * 15);
+            dot.setTranslateY(point.getY() * 15);
+            dot.setTranslateZ(point.getZ() * 15);
+            dot.setMaterial(material);
+            dot.setPickOnBounds(true); // для корректного наведения
+
+            final double finalT = DOT_GRID.getT(i);
+            final Point3D finalPoint = point;
+            final Point3D finalDerivative = derivative;
+            final String finalClassName = actualClassName;
+
+            dot.setOnMouseEntered(event -> infoLabel.setText(String.format(
+                    "%s | t = %.2f | Point: (%.2f, %.2f, %.2f)",
+                    finalClassName, finalT,
+                    finalPoint.getX(), finalPoint.getY(), finalPoint.getZ(),
+                    finalDerivative.getX(), finalDerivative.getY(), finalDerivative.getZ()
+            )));
+
+            dot.setOnMouseExited(event -> infoLabel.setText(
+                    "Hover over any point to see coordinates"
+            ));
 
-                    dot.setOnMouseExited(event -> infoLabel.setText(
-                            "Hover over any point to see coordinates"
-                    ));
+            // Клик без перетаскивания (оно вращает сцену) открывает кривую в редакторе
+            dot.setOnMouseClicked(event -> {
+                if (event.isStillSincePress()) startEditing(curve);
+            });
 
-                    visualizationRoot.getChildren().add(dot);
-                }
+            curveGroup.getChildren().add(dot);
+        }
+
+        curveNodes.put(curve, curveGroup);
+        visualizationRoot.getChildren().add(curveGroup);
+    }
+
+    // Редактор параметров: клик по точке выбирает кривую, слайдеры меняют её параметры.
+    // Пока слайдер тянут, пересчитываются только вершины меша этой кривой, остальные узлы
+    // сцены не затрагиваются; в реестр и журнал новая кривая попадает, когда слайдер отпущен
+    private VBox createEditorPanel() {
+        editorPanel = new VBox(6);
+        editorPanel.setPadding(new Insets(10));
+        editorPanel.setPrefWidth(220);
+        showEditorHint();
+        return editorPanel;
+    }
+
+    private void showEditorHint() {
+        Label hint = new Label("Click a curve point to edit its parameters");
+        hint.setWrapText(true);
+        hint.setStyle("-fx-text-fill: gray; -fx-font-size: 12px;");
+        editorPanel.getChildren().setAll(hint);
+    }
+
+    private void startEditing(Curve3D curve) {
+        if (curve == editedCurve) return;
+        CurveParameters parameters = CurveParameters.of(curve);
+        if (parameters == null) {
+            infoLabel.setText("This curve cannot be edited");
+            return;
+        }
+        finishEditing();
+
+        Group dots = curveNodes.get(curve);
+        if (dots != null) dots.setVisible(false);
+        editedCurve = curve;
+        editParameters = parameters;
+        editMesh = new CurveTubeMesh(curve, DOT_GRID, 15, Color.ORANGERED);
+        visualizationRoot.getChildren().add(editMesh.getView());
+
+        Label title = new Label("Edit " + parameters.getType());
+        title.setStyle("-fx-font-size: 14px; -fx-font-weight: bold;");
+        List<Node> controls = new ArrayList<>();
+        controls.add(title);
+
+        addEditSlider(controls, "Radius", 0.1, 10, parameters.getRadius(), parameters::setRadius);
+        if ("Ellipse".equals(parameters.getType()))
+            addEditSlider(controls, "Radius Y", 0.1, 10, parameters.getRadiusY(), parameters::setRadiusY);
+        if ("Helix".equals(parameters.getType()))
+            addEditSlider(controls, "Step", -5, 5, parameters.getStep(), parameters::setStep);
+        addEditSlider(controls, "Offset X", -10, 10, parameters.getOffsetX(), parameters::setOffsetX);
+        addEditSlider(controls, "Offset Y", -10, 10, parameters.getOffsetY(), parameters::setOffsetY);
+        addEditSlider(controls, "Offset Z", -10, 10, parameters.getOffsetZ(), parameters::setOffsetZ);
+        addEditSlider(controls, "Angle (degrees)", -180, 180, parameters.getAngleDegrees(),
+                parameters::setAngleDegrees);
+
+        Button doneButton = new Button("Done");
+        doneButton.setOnAction(e -> finishEditing());
+        controls.add(doneButton);
+
+        editorPanel.getChildren().setAll(controls);
+    }
+
+    private void addEditSlider(List<Node> controls, String name, double min, double max, double value,
+                               DoubleConsumer setter) {
+        Label label = new Label(String.format("%s: %.2f", name, value));
+        Slider slider = new Slider(Math.min(min, value), Math.max(max, value), value);
+
+        slider.valueProperty().addListener((obs, oldValue, newValue) -> {
+            label.setText(String.format("%s: %.2f", name, newValue.doubleValue()));
+            setter.accept(newValue.doubleValue());
+            previewEdit();
+            // Клавиатура и клик по дорожке меняют значение без перетаскивания
+            if (!slider.isValueChanging()) commitEdit();
+        });
+        slider.valueChangingProperty().addListener((obs, wasChanging, changing) -> {
+            if (!changing) commitEdit();
+        });
+
+        controls.add(label);
+        controls.add(slider);
+    }
+
+    private void previewEdit() {
+        if (editMesh == null) return;
+        try {
+            pendingCurve = editParameters.build();
+        } catch (IllegalArgumentException e) {
+            infoLabel.setText("✗ " + e.getMessage());
+            return;
+        }
+        editMesh.update(pendingCurve);
+    }
+
+    private void commitEdit() {
+        if (pendingCurve == null) return;
+        Curve3D previous = editedCurve;
+        Curve3D replacement = curveInterner.intern(pendingCurve); // промежуточные значения не интернируются
+        pendingCurve = null;
+
+        editedCurve = replacement; // до replace: слушатель не должен строить для неё точки
+        if (!curveRegistry.replace(previous, replacement)) {
+            // Кривую уже убрали из реестра - редактировать нечего
+            curveInterner.release(replacement);
+            editedCurve = previous;
+            finishEditing();
+            return;
+        }
+        curveInterner.release(previous); // без других копий старая форма уходит из интернера
+        // Владелец решается после восстановления: до него восстановленные копии ещё не учтены
+        afterRestore(() -> {
+            Integer copies = userCopies.get(previous);
+            boolean userOwned = copies != null;
+            if (copies == null) {
+                fixedCurveCount--; // встроенная кривая стала пользовательской
+            } else if (copies == 1) {
+                userCopies.remove(previous);
+            } else {
+                userCopies.put(previous, copies - 1);
             }
+            userCopies.merge(replacement, 1, Integer::sum);
+            if (curveJournal == null) return;
+            if (userOwned) curveJournal.remove(previous);
+            else curveJournal.removeExternal(previous);
+            curveJournal.append(replacement).whenComplete(this::reportSaveError);
+        });
+    }
+
+    private void reportSaveError(Void ignored, Throwable error) {
+        if (error != null) System.err.println("Failed to save curve: " + error.getMessage());
+    }
+
+    // Возвращает кривую к обычному виду из точек
+    private void finishEditing() {
+        if (editedCurve == null) return;
+        commitEdit();
+        Curve3D curve = editedCurve;
+        visualizationRoot.getChildren().remove(editMesh.getView());
+        stopEditing();
+
+        Group dots = curveNodes.get(curve);
+        if (dots != null) {
+            dots.setVisible(true);
+        } else if (getAllCurves().contains(curve)) {
+            Random rand = new Random();
+            addCurveIfShown(curve, shownCurveType, rand);
         }
     }
 
+    // Сбрасывает состояние редактора; меш убирает вызывающий код
+    private void stopEditing() {
+        editedCurve = null;
+        pendingCurve = null;
+        editParameters = null;
+        editMesh = null;
+        if (editorPanel != null) showEditorHint();
+    }
+
     // Получение реального типа кривой (с учетом декораторов)
     private String getActualCurveType(Curve3D curve) {
         if (curve instanceof TranslatedCurve) {
@@ -567,14 +1045,14 @@ public class MainApplication extends Application {
         Label titleLabel = new Label("Curve Calculations at t=π/4");
         titleLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
 
-        TableView<CalculationResult> resultsTable = createResultsTable();
+        resultsTable = createResultsTable();
         VBox circlesInfo = createCirclesInfo(); // Задачи 4, 5, 6
 
         calculationsPane.getChildren().addAll(titleLabel, resultsTable, circlesInfo);
         return calculationsPane;
     }
 
-    private TableView<CalculationResult> createResultsTable() {
+    TableView<CalculationResult> createResultsTable() {
         TableView<CalculationResult> table = new TableView<>();
 
         TableColumn<CalculationResult, String> typeCol = new TableColumn<>("Type");
@@ -596,22 +1074,27 @@ public class MainApplication extends Application {
 
     // Обновление таблицы результатов
     private void updateResultsTable(TableView<CalculationResult> table) {
-        double tCheck = Math.PI / 4;
         ObservableList<CalculationResult> data = FXCollections.observableArrayList();
+        CurveRegistry.Snapshot snapshot = curveRegistry.snapshot();
 
-        for (Curve3D curve : getAllCurves()) {
-            String curveName = getCurveDisplayName(curve);
+        for (Curve3D curve : snapshot)
+            data.add(calculateResult(curve));
 
-            data.add(new CalculationResult(
-                    curveName,
-                    curve.getPoint(tCheck).toString(),
-                    curve.getDerivative(tCheck).toString()
-            ));
-        }
+        resultsTableVersion = snapshot.getVersion();
 
         table.setItems(data);
     }
 
+    private CalculationResult calculateResult(Curve3D curve) {
+        double tCheck = Math.PI / 4;
+        return new CalculationResult(
+                curve,
+                getCurveDisplayName(curve),
+                curve.getPoint(tCheck).toString(),
+                curve.getDerivative(tCheck).toString()
+        );
+    }
+
     //  Получение отображаемого имени кривой
     private String getCurveDisplayName(Curve3D curve) {
         if (curve instanceof TranslatedCurve tc) {
@@ -636,41 +1119,51 @@ public class MainApplication extends Application {
         Label circlesTitle = new Label("Circle Information:");
         circlesTitle.setStyle("-fx-font-weight: bold;");
 
-        List<Circle> circles = getAllCurves().stream()
-                .filter(c -> getActualCurveType(c).equals("Circle"))
-                .map(c -> {
-                    // Извлекаем Circle из декораторов
-                    Curve3D base = c;
-                    while (!(base instanceof Circle)) {
-                        if (base instanceof TranslatedCurve) {
-                            base = ((TranslatedCurve) base).getBaseCurve();
-                        } else if (base instanceof RotatedCurve) {
-                            base = ((RotatedCurve) base).getBaseCurve();
-                        } else {
-                            break;
-                        }
-                    }
-                    return (Circle) base;
-                })
-                .filter(Objects::nonNull)
-                .sorted(Comparator.comparingDouble(Circle::getRadius))
-                .toList();
-
-        double sumRadii = circles.stream().mapToDouble(Circle::getRadius).sum();
-
-        StringBuilder circlesText = new StringBuilder("Sorted circles by radius:\n");
-        for (Circle c : circles)
-            circlesText.append(String.format("Circle radius: %.2f\n", c.getRadius()));
-        circlesText.append(String.format("\nTotal sum of radii: %.2f", sumRadii));
-
-        Label circlesLabel = new Label(circlesText.toString());
+        circlesLabel = new Label("Loading...");
         circlesLabel.setWrapText(true);
+        circlesExecutor.execute(() -> {
+            CurveRegistry.Snapshot snapshot = curveRegistry.snapshot();
+            circleSubset = CircleSubset.of(snapshot);
+            circleSubsetVersion = snapshot.getVersion();
+            publishCirclesText();
+        });
 
         box.getChildren().addAll(circlesTitle, circlesLabel);
         return box;
     }
 
-    private void addCoordinateAxes(Group root) {
+    // Дельта применяется к готовой выборке; если выборка отстала или построена позже дельты,
+    // она строится заново по снимку (или дельта пропускается)
+    private void updateCirclesInfo(CurveRegistry.Change change) {
+        circlesExecutor.execute(() -> {
+            if (change.getToVersion() <= circleSubsetVersion) return;
+            if (circleSubset != null && change.getFromVersion() == circleSubsetVersion)
+                circleSubset = circleSubset.merge(change.getAdded(), change.getRemoved());
+            else
+                circleSubset = CircleSubset.of(change.getSnapshot());
+            circleSubsetVersion = change.getToVersion();
+            publishCirclesText();
+        });
+    }
+
+    // Вызывается в потоке circlesExecutor; текст строится там же, в FX-поток уходит только setText
+    private void publishCirclesText() {
+        // Окружности из контейнера (те же объекты), отсортированные по радиусу, и сумма радиусов
+        List<Circle> circles = circleSubset.getCircles();
+        int listed = Math.min(circles.size(), MAX_LISTED_CIRCLES);
+
+        StringBuilder circlesText = new StringBuilder("Sorted circles by radius:\n");
+        for (int i = 0; i < listed; i++)
+            circlesText.append(String.format("Circle radius: %.2f\n", circles.get(i).getRadius()));
+        if (listed < circles.size())
+            circlesText.append(String.format("... and %d more\n", circles.size() - listed));
+        circlesText.append(String.format("\nTotal sum of radii: %.2f", circleSubset.getTotalRadius()));
+
+        String text = circlesText.toString();
+        Platform.runLater(() -> circlesLabel.setText(text));
+    }
+
+    void addCoordinateAxes(Group root) {
         final double axisLength = 100;
 
         // Ось X (красная, 2D)
@@ -722,15 +1215,18 @@ public class MainApplication extends Application {
     }
 
     public static class CalculationResult {
+        private final Curve3D curve; // по ней находится строка, когда кривую правят или удаляют
         private final String type;
         private final String point;
         private final String derivative;
 
-        public CalculationResult(String type, String point, String derivative) {
+        public CalculationResult(Curve3D curve, String type, String point, String derivative) {
+            this.curve = curve;
             this.type = type;
             this.point = point;
             this.derivative = derivative;
         }
+        public Curve3D getCurve() { return curve; }
         public String getType() { return type; }
         public String getPoint() { return point; }
         public String getDerivative() { return derivative; }
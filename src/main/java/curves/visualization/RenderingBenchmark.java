@@ -0,0 +1,267 @@
+package curves.visualization;
+
+import curves.*;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.geometry.Point3D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.SubScene;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.BorderPane;
+import javafx.stage.Stage;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+// Замер стоимости построения сцены MainApplication без экрана (Monocle Headless).
+// Для каждого размера синтетического контейнера записываются время построения,
+// число узлов, удерживаемая сценой память и время кадра; итог пишется в JSON.
+//
+// Pulse-таймер запускается с javafx.animation.fullspeed: без него кадры идут не чаще 60 Гц
+// и интервал между ними держится около 16.7 мс, пока сцена укладывается в бюджет.
+// В полной скорости следующий pulse начинается сразу после предыдущего, а Quantum перед
+// новым кадром дожидается отрисовки прошлого - так интервал кадра включает CSS, layout,
+// синхронизацию с render-потоком и сам проход Prism. Внутренний PerformanceTracker
+// недоступен из модуля приложения (пакет com.sun.javafx.perf не экспортируется).
+//
+// Запуск: mvn -Prender-bench compile exec:java [-Dexec.args="report.json 10,100,1000"]
+public final class RenderingBenchmark {
+    // 100 000 кривых - около 18 млн узлов Sphere; такой размер задаётся явно и с большим -Xmx
+    private static final int[] DEFAULT_SIZES = {10, 100, 1_000, 10_000};
+    private static final int MEASURED_FRAMES = 120;
+    private static final int WARMUP_FRAMES = 10;
+    private static boolean toolkitStarted;
+
+    private RenderingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path reportPath = Path.of(args.length > 0 ? args[0] : "target/render-benchmark.json");
+        int[] sizes = args.length > 1
+                ? Arrays.stream(args[1].split(",")).mapToInt(v -> Integer.parseInt(v.trim())).toArray()
+                : DEFAULT_SIZES;
+
+        startHeadlessToolkit();
+        writeReport(reportPath, sizes);
+        System.out.println("Report written to " + reportPath.toAbsolutePath());
+
+        Platform.exit();
+    }
+
+    // Запускает toolkit без экрана; повторный вызов (тесты) ничего не делает
+    static synchronized void startHeadlessToolkit() throws InterruptedException {
+        if (toolkitStarted) return;
+
+        // Должно быть выставлено до запуска toolkit
+        System.setProperty("glass.platform", "Monocle");
+        System.setProperty("monocle.platform", "Headless");
+        System.setProperty("prism.order", "sw");
+        System.setProperty("prism.text", "t2k");
+        System.setProperty("javafx.animation.fullspeed", "true");
+
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+        Platform.setImplicitExit(false);
+        toolkitStarted = true;
+    }
+
+    static void writeReport(Path reportPath, int[] sizes) throws Exception {
+        List<String> runs = new ArrayList<>();
+        for (int size : sizes) {
+            String run;
+            try {
+                run = measure(size);
+            } catch (OutOfMemoryError e) {
+                run = String.format(Locale.ROOT, "{\"curves\":%d,\"error\":\"OutOfMemoryError\"}", size);
+            }
+            System.out.println(run);
+            runs.add(run);
+        }
+
+        String report = String.format(Locale.ROOT,
+                "{\"javafx\":\"%s\",\"java\":\"%s\",\"platform\":\"%s\",\"runs\":[%n  %s%n]}%n",
+                System.getProperty("javafx.runtime.version"), System.getProperty("java.version"),
+                System.getProperty("monocle.platform"), String.join(",\n  ", runs));
+        if (reportPath.getParent() != null) Files.createDirectories(reportPath.getParent());
+        Files.writeString(reportPath, report, StandardCharsets.UTF_8);
+    }
+
+    static String measure(int size) throws Exception {
+        List<Curve3D> curves = syntheticCurves(size, 42);
+        long heapBefore = usedHeapAfterGc();
+
+        MainApplication app = new MainApplication();
+        app.getCurveRegistry().addAll(curves);
+
+        // Построение сцены тем же кодом, что и в приложении, но только синхронным путём без потоковой подгрузки
+        Stage[] stage = new Stage[1];
+        long[] timings = onFxThread(() -> {
+            long t0 = System.nanoTime();
+            BorderPane visualization = app.createVisualizationContent("All", false);
+            long t1 = System.nanoTime();
+            app.addCoordinateAxes(new Group());
+            long t2 = System.nanoTime();
+            TableView<MainApplication.CalculationResult> table = app.createResultsTable();
+            long t3 = System.nanoTime();
+
+            BorderPane root = new BorderPane(visualization);
+            root.setBottom(table);
+            stage[0] = new Stage();
+            stage[0].setScene(new Scene(root, 1200, 840));
+            stage[0].show();
+            return new long[]{t1 - t0, t2 - t1, t3 - t2, countNodes(root)};
+        });
+
+        FrameStats frames = measureFrames(app, stage[0].getScene());
+        long heapRetained = usedHeapAfterGc() - heapBefore; // сцена ещё показана и достижима
+
+        onFxThread(() -> {
+            stage[0].close();
+            return null;
+        });
+
+        return String.format(Locale.ROOT,
+                "{\"curves\":%d,\"visualizationBuildMillis\":%.3f,\"axesBuildMillis\":%.3f,"
+                        + "\"resultsTableBuildMillis\":%.3f,\"nodeCount\":%d,\"retainedHeapBytes\":%d,"
+                        + "\"frames\":%d,\"meanFrameMillis\":%.3f,\"p95FrameMillis\":%.3f,\"maxFrameMillis\":%.3f,"
+                        + "\"framesPerSecond\":%.1f,\"meanLayoutPassMillis\":%.3f}",
+                size, timings[0] / 1e6, timings[1] / 1e6, timings[2] / 1e6, timings[3], heapRetained,
+                frames.intervals.length, frames.mean(), frames.percentile(95), frames.max(),
+                frames.mean() > 0 ? 1000 / frames.mean() : 0, frames.meanLayoutMillis);
+    }
+
+    // Сцена вращается каждый кадр, чтобы каждый pulse действительно перерисовывал её.
+    // Интервал кадра - полная стоимость pulse вместе с отрисовкой (см. fullspeed выше),
+    // время layout-прохода пишется отдельно, чтобы было видно, какая доля приходится на него
+    private static FrameStats measureFrames(MainApplication app, Scene scene) throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        long[] frameTimes = new long[WARMUP_FRAMES + MEASURED_FRAMES + 1];
+        long[] layoutNanos = new long[2]; // сумма и количество
+        long[] layoutStart = new long[1];
+
+        Runnable preLayout = () -> layoutStart[0] = System.nanoTime();
+        Runnable postLayout = () -> {
+            layoutNanos[0] += System.nanoTime() - layoutStart[0];
+            layoutNanos[1]++;
+        };
+
+        onFxThread(() -> {
+            scene.addPreLayoutPulseListener(preLayout);
+            scene.addPostLayoutPulseListener(postLayout);
+            new AnimationTimer() {
+                private int frame = 0;
+
+                @Override
+                public void handle(long now) {
+                    frameTimes[frame++] = now;
+                    app.getVisualizationRoot().setRotate(frame);
+                    if (frame == frameTimes.length) {
+                        stop();
+                        done.countDown();
+                    }
+                }
+            }.start();
+            return null;
+        });
+        if (!done.await(10, TimeUnit.MINUTES)) throw new IllegalStateException("Frames did not complete");
+
+        onFxThread(() -> {
+            scene.removePreLayoutPulseListener(preLayout);
+            scene.removePostLayoutPulseListener(postLayout);
+            return null;
+        });
+
+        double[] intervals = new double[MEASURED_FRAMES];
+        for (int i = 0; i < MEASURED_FRAMES; i++)
+            intervals[i] = (frameTimes[WARMUP_FRAMES + i + 1] - frameTimes[WARMUP_FRAMES + i]) / 1e6;
+        double meanLayout = layoutNanos[1] == 0 ? 0 : layoutNanos[0] / 1e6 / layoutNanos[1];
+        return new FrameStats(intervals, meanLayout);
+    }
+
+    static List<Curve3D> syntheticCurves(int count, long seed) {
+        Random rand = new Random(seed);
+        List<Curve3D> curves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double radius = 0.5 + rand.nextDouble() * 5;
+            Curve3D curve = switch (i % 3) {
+                case 0 -> new Circle(radius);
+                case 1 -> new Ellipse(radius, 0.5 + rand.nextDouble() * 5);
+                default -> new Helix(radius, rand.nextDouble() * 3);
+            };
+            if (rand.nextBoolean())
+                curve = new RotatedCurve(curve, new Point3D(rand.nextDouble(), rand.nextDouble(), 1), rand.nextDouble() * Math.PI);
+            if (rand.nextBoolean())
+                curve = new TranslatedCurve(curve, new Point3D(rand.nextGaussian() * 5, rand.nextGaussian() * 5, rand.nextGaussian() * 5));
+            curves.add(curve);
+        }
+        return curves;
+    }
+
+    private static long countNodes(Node node) {
+        long count = 1;
+        if (node instanceof SubScene subScene && subScene.getRoot() != null)
+            count += countNodes(subScene.getRoot());
+        if (node instanceof Parent parent)
+            for (Node child : parent.getChildrenUnmodifiable())
+                count += countNodes(child);
+        return count;
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Ошибка FX-потока пробрасывается как есть, чтобы main мог поймать OutOfMemoryError
+    static <T> T onFxThread(Callable<T> action) throws Exception {
+        FutureTask<T> task = new FutureTask<>(action);
+        Platform.runLater(task);
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error) throw error;
+            if (e.getCause() instanceof Exception exception) throw exception;
+            throw e;
+        }
+    }
+
+    private static final class FrameStats {
+        private final double[] intervals;
+        private final double meanLayoutMillis;
+
+        FrameStats(double[] intervals, double meanLayoutMillis) {
+            this.intervals = intervals;
+            this.meanLayoutMillis = meanLayoutMillis;
+        }
+
+        double mean() {
+            return Arrays.stream(intervals).average().orElse(0);
+        }
+
+        double max() {
+            return Arrays.stream(intervals).max().orElse(0);
+        }
+
+        double percentile(double p) {
+            if (intervals.length == 0) return 0;
+            double[] sorted = intervals.clone();
+            Arrays.sort(sorted);
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p / 100 * sorted.length) - 1)];
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package curves.visualization;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Замер запуска: время до первого кадра и до полной интерактивности (вся геометрия загружена)
+final class StartupTimer {
+    private final long startNanos = System.nanoTime();
+    private long firstFrameNanos = -1;
+    private long interactiveNanos = -1;
+    private final long launchMillis = ProcessHandle.current().info().startInstant()
+            .map(jvmStart -> Duration.between(jvmStart, Instant.now()).toMillis())
+            .orElse(-1L);
+
+    // Первый layout-pulse после show() - кадр, который будет отрисован первым
+    void trackFirstFrame(Scene scene) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            if (firstFrameNanos >= 0) return;
+            firstFrameNanos = System.nanoTime();
+            // Снимаем слушатель вне текущего pulse, чтобы не менять список во время обхода
+            Platform.runLater(() -> scene.removePostLayoutPulseListener(listener[0]));
+            report();
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    void markInteractive() {
+        if (interactiveNanos >= 0) return;
+        interactiveNanos = System.nanoTime();
+        report();
+    }
+
+    private void report() {
+        if (firstFrameNanos < 0 || interactiveNanos < 0) return;
+
+        System.out.println("=== Startup timing ===");
+        System.out.printf(" - time to first frame:       %.1f ms%n", millisSinceStart(firstFrameNanos));
+        System.out.printf(" - time to fully interactive: %.1f ms%n", millisSinceStart(interactiveNanos));
+        // Загрузка классов и инициализация JavaFX toolkit до вызова start()
+        if (launchMillis >= 0)
+            System.out.printf(" - JVM start to start():      %d ms%n", launchMillis);
+    }
+
+    private double millisSinceStart(long nanos) {
+        return (nanos - startNanos) / 1_000_000.0;
+    }
+}
@@ -7,10 +7,13 @@ module org.example.fx {
     requires com.dlsc.formsfx;
     requires org.kordamp.bootstrapfx.core;
     requires com.almasb.fxgl.all;
+    requires jdk.httpserver; // Локальный сервис пакетного вычисления
 
     // Экспортируем основные пакеты
     exports curves.visualization;
     exports curves;
+    exports curves.service;
+    exports curves.journal;
 
     // Открываем пакеты для FXML инъекции
     opens curves.visualization to javafx.fxml;
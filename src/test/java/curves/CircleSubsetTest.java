@@ -0,0 +1,57 @@
+package curves;
+
+import javafx.geometry.Point3D;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Инкрементальная выборка окружностей совпадает с построенной заново по всему контейнеру
+class CircleSubsetTest {
+
+    @Test
+    void mergeMatchesRebuild() {
+        Random random = new Random(7);
+        List<Curve3D> container = new ArrayList<>();
+        Circle shared = new Circle(2.5); // одна окружность под несколькими декораторами
+        CircleSubset subset = CircleSubset.of(container);
+
+        for (int step = 0; step < 500; step++) {
+            List<Curve3D> added = new ArrayList<>();
+            List<Curve3D> removed = new ArrayList<>();
+            for (int k = random.nextInt(4); k > 0 && !container.isEmpty(); k--)
+                removed.add(container.remove(random.nextInt(container.size())));
+            for (int k = random.nextInt(4); k > 0; k--)
+                added.add(randomCurve(random, shared));
+            container.addAll(added);
+
+            subset = subset.merge(added, removed);
+            CircleSubset rebuilt = CircleSubset.of(container);
+            assertEquals(rebuilt.getCircles(), subset.getCircles());
+            for (int i = 0; i < rebuilt.size(); i++)
+                assertSame(rebuilt.getCircles().get(i), subset.getCircles().get(i));
+            assertEquals(rebuilt.getTotalRadius(), subset.getTotalRadius(), 1e-12 * (1 + rebuilt.getTotalRadius()));
+        }
+    }
+
+    @Test
+    void mergeIgnoresUnknownRemovals() {
+        Circle circle = new Circle(1);
+        CircleSubset subset = CircleSubset.of(List.of(circle));
+        assertSame(subset, subset.merge(List.of(new Helix(1, 1)), List.of(new Circle(1), new Ellipse(1, 2))));
+        assertEquals(1, subset.size());
+    }
+
+    private static Curve3D randomCurve(Random random, Circle shared) {
+        return switch (random.nextInt(5)) {
+            case 0 -> new Circle(1 + random.nextInt(5)); // равные радиусы у разных объектов
+            case 1 -> new TranslatedCurve(shared, new Point3D(random.nextDouble(), 0, 0));
+            case 2 -> new RotatedCurve(new Circle(random.nextDouble() * 10), new Point3D(0, 0, 1), 1);
+            case 3 -> new Ellipse(1 + random.nextDouble(), 2);
+            default -> shared;
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package curves;
+
+import javafx.geometry.Point3D;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Интернер отдаёт один объект на значение и забывает кривые, на которые не осталось ссылок
+class CurveInternerTest {
+
+    @Test
+    void sharesEqualCurvesAndTheirBases() {
+        CurveInterner interner = new CurveInterner();
+        Curve3D a = interner.intern(new TranslatedCurve(new Circle(2), new Point3D(1, 0, 0)));
+        Curve3D b = interner.intern(new TranslatedCurve(new Circle(2), new Point3D(1, 0, 0)));
+        Curve3D c = interner.intern(new TranslatedCurve(new Circle(2), new Point3D(0, 1, 0)));
+
+        assertSame(a, b);
+        assertSame(((TranslatedCurve) a).getBaseCurve(), ((TranslatedCurve) c).getBaseCurve());
+        assertEquals(3, interner.size());
+    }
+
+    @Test
+    void releaseEvictsUnreferencedCurves() {
+        CurveInterner interner = new CurveInterner();
+        Curve3D rotated = new RotatedCurve(new Helix(1, 2), new Point3D(0, 0, 1), 0.5);
+        Curve3D first = interner.intern(rotated);
+        Curve3D second = interner.intern(rotated);
+        Curve3D base = interner.intern(new Helix(1, 2));
+        assertEquals(2, interner.size());
+
+        interner.release(first);
+        assertEquals(2, interner.size()); // вторая копия ещё в контейнере
+        interner.release(second);
+        assertEquals(1, interner.size()); // база жива по отдельной ссылке
+        interner.release(base);
+        assertEquals(0, interner.size());
+
+        // Забытая кривая интернируется заново вместе с базой
+        interner.intern(rotated);
+        assertEquals(2, interner.size());
+    }
+
+    @Test
+    void repeatedEditsDoNotGrowTable() {
+        CurveInterner interner = new CurveInterner();
+        Curve3D current = interner.intern(new Circle(1));
+        for (int i = 2; i <= 10_000; i++) {
+            Curve3D next = interner.intern(new TranslatedCurve(new Ellipse(i, 1), new Point3D(i, 0, 0)));
+            interner.release(current);
+            current = next;
+        }
+        assertEquals(2, interner.size());
+    }
+
+    @Test
+    void releasingEqualNonCanonicalCurveIsIgnored() {
+        CurveInterner interner = new CurveInterner();
+        interner.intern(new Circle(3));
+        interner.release(new Circle(3));
+        assertEquals(1, interner.size());
+    }
+}
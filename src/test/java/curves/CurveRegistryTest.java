@@ -0,0 +1,135 @@
+package curves;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Уплотнение слотов: правки не копят удалённые слоты, а слушатели получают точные дельты
+class CurveRegistryTest {
+
+    @Test
+    void repeatedReplaceKeepsSlotsBounded() {
+        CurveRegistry registry = new CurveRegistry();
+        List<Curve3D> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Curve3D curve = new Circle(i + 1);
+            registry.add(curve);
+            expected.add(curve);
+        }
+
+        for (int edit = 0; edit < 10_000; edit++) {
+            int index = edit % expected.size();
+            Curve3D replacement = new Helix(edit + 1, 1);
+            assertTrue(registry.replace(expected.get(index), replacement));
+            expected.remove(index);
+            expected.add(replacement);
+            assertTrue(registry.getSlotCount() <= expected.size() + 64, "slots: " + registry.getSlotCount());
+        }
+        assertEquals(expected, registry.snapshot());
+    }
+
+    @Test
+    void changesAcrossCompactionMatchSnapshots() {
+        CurveRegistry registry = new CurveRegistry();
+        List<Curve3D> seen = new ArrayList<>();
+        List<CurveRegistry.Change> changes = new ArrayList<>();
+        registry.addListener(change -> {
+            changes.add(change);
+            for (Curve3D curve : change.getRemoved()) assertTrue(removeInstance(seen, curve));
+            seen.addAll(change.getAdded());
+            assertEquals(change.getSnapshot().size(), seen.size());
+        });
+
+        List<Curve3D> curves = new ArrayList<>();
+        for (int i = 0; i < 200; i++)
+            curves.add(new Circle(i + 1));
+        registry.addAll(curves);
+        for (int i = 0; i < 150; i++)
+            assertTrue(registry.remove(curves.get(i)));
+
+        assertTrue(registry.getSlotCount() < 200);
+        assertEquals(curves.subList(150, 200), registry.snapshot());
+        assertEquals(151, changes.size()); // уплотнение само по себе дельту не рассылает
+        assertEquals(registry.getVersion(), changes.get(changes.size() - 1).getToVersion());
+    }
+
+    @Test
+    void concurrentAppendsSurviveCompaction() throws InterruptedException {
+        CurveRegistry registry = new CurveRegistry();
+        int threads = 4;
+        int perThread = 5_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // Каждая третья кривая сразу удаляется - уплотнение идёт параллельно с добавлением
+                for (int i = 0; i < perThread; i++) {
+                    Curve3D curve = new Ellipse(id + 1, i + 1);
+                    registry.add(curve);
+                    if (i % 3 == 0) assertTrue(registry.remove(curve));
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers)
+            worker.join();
+
+        CurveRegistry.Snapshot snapshot = registry.snapshot();
+        int kept = perThread - (perThread + 2) / 3;
+        assertEquals(threads * kept, snapshot.size());
+        for (int t = 0; t < threads; t++) {
+            int count = 0;
+            for (Curve3D curve : snapshot)
+                if (((Ellipse) curve).getRadiusX() == t + 1) count++;
+            assertEquals(kept, count);
+        }
+    }
+
+    @Test
+    void removesByIdentityThroughCompaction() {
+        CurveRegistry registry = new CurveRegistry();
+        Curve3D shared = new Circle(1);
+        Curve3D equal = new Circle(1);
+        List<Curve3D> filler = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            filler.add(new Helix(i + 1, 1));
+        registry.add(shared);
+        registry.addAll(filler);
+        registry.add(shared);
+
+        assertFalse(registry.remove(equal)); // равная по значению, но другая кривая
+        for (Curve3D curve : filler)
+            assertTrue(registry.remove(curve));
+        assertTrue(registry.getSlotCount() < 100);
+
+        // Один объект в двух слотах: каждое удаление снимает по одному
+        assertEquals(List.of(shared, shared), registry.snapshot());
+        assertTrue(registry.remove(shared));
+        assertEquals(List.of(shared), registry.snapshot());
+        assertTrue(registry.remove(shared));
+        assertFalse(registry.remove(shared));
+        assertEquals(0, registry.snapshot().size());
+    }
+
+    private static boolean removeInstance(List<Curve3D> curves, Curve3D curve) {
+        for (int i = 0; i < curves.size(); i++) {
+            if (curves.get(i) == curve) {
+                curves.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,117 @@
+package curves;
+
+import javafx.geometry.Point3D;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Потеря точности FLOAT-сэмплов относительно getPoint/getDerivative на больших радиусах
+class CurveSamplerTest {
+    // Граница из SamplePrecision: 2^-24 от наибольшего модуля компоненты вектора.
+    // Запас 1e-6 покрывает расхождение в последних битах double между аффинной свёрткой
+    // CurveSampler и цепочкой getPoint (например, Родригес против матрицы поворота)
+    private static final double FLOAT_BOUND = Math.scalb(1.0, -24) * (1 + 1e-6);
+    private static final double[] RADII = {1e3, 1e5, 1e7};
+    private static final double[] T = ParameterGrid.covering(0, 4 * Math.PI, 0.01).toArray();
+
+    @Test
+    void floatSamplesStayWithinRelativeBound() {
+        for (double r : RADII) {
+            for (Curve3D curve : curvesOfRadius(r)) {
+                float[] points = new float[3 * T.length];
+                float[] derivatives = new float[3 * T.length];
+                CurveSampler.sample(curve, T, points, derivatives);
+
+                for (int i = 0; i < T.length; i++) {
+                    String where = curve.getClass().getSimpleName() + " R=" + r + " t=" + T[i];
+                    assertWithinBound(curve.getPoint(T[i]), points, i, "point of " + where);
+                    assertWithinBound(curve.getDerivative(T[i]), derivatives, i, "derivative of " + where);
+                }
+            }
+        }
+    }
+
+    @Test
+    void doubleSamplesMatchGetPoint() {
+        for (double r : RADII) {
+            for (Curve3D curve : curvesOfRadius(r)) {
+                double[] points = new double[3 * T.length];
+                CurveSampler.sample(curve, T, points, null);
+                for (int i = 0; i < T.length; i++) {
+                    Point3D p = curve.getPoint(T[i]);
+                    double scale = maxAbs(p);
+                    assertEquals(p.getX(), points[3 * i], 1e-14 * scale);
+                    assertEquals(p.getY(), points[3 * i + 1], 1e-14 * scale);
+                    assertEquals(p.getZ(), points[3 * i + 2], 1e-14 * scale);
+                }
+            }
+        }
+    }
+
+    @Test
+    void floatErrorGrowsWithRadius() {
+        // Абсолютная погрешность растёт пропорционально радиусу, относительная - нет
+        double previous = 0;
+        for (double r : RADII) {
+            Curve3D circle = new Circle(r);
+            float[] points = new float[3 * T.length];
+            CurveSampler.sample(circle, T, points, null);
+
+            double maxAbsError = 0;
+            for (int i = 0; i < T.length; i++) {
+                Point3D p = circle.getPoint(T[i]);
+                maxAbsError = Math.max(maxAbsError, Math.abs(points[3 * i] - p.getX()));
+                maxAbsError = Math.max(maxAbsError, Math.abs(points[3 * i + 1] - p.getY()));
+            }
+            assertTrue(maxAbsError <= FLOAT_BOUND * r, "R=" + r + ": " + maxAbsError);
+            assertTrue(maxAbsError > previous, "R=" + r + ": " + maxAbsError);
+            previous = maxAbsError;
+        }
+    }
+
+    @Test
+    void segmentSamplesMatchFloatArraysWithoutAlignment() {
+        Curve3D curve = curvesOfRadius(1e3).get(3);
+        float[] expectedPoints = new float[3 * T.length];
+        float[] expectedDerivatives = new float[3 * T.length];
+        CurveSampler.sample(curve, T, expectedPoints, expectedDerivatives);
+
+        // Сегмент поверх byte[] выровнен только на 1 байт, срез со смещением 1 - тоже
+        long bytes = 3L * T.length * Float.BYTES;
+        MemorySegment heap = MemorySegment.ofArray(new byte[(int) bytes]);
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment offset = arena.allocate(bytes + 1).asSlice(1);
+            CurveSampler.sample(curve, T, heap, offset);
+
+            for (int i = 0; i < 3 * T.length; i++) {
+                assertEquals(expectedPoints[i], heap.getAtIndex(ValueLayout.JAVA_FLOAT_UNALIGNED, i));
+                assertEquals(expectedDerivatives[i], offset.getAtIndex(ValueLayout.JAVA_FLOAT_UNALIGNED, i));
+            }
+        }
+    }
+
+    private static List<Curve3D> curvesOfRadius(double r) {
+        Curve3D helix = new Helix(r, r / 10);
+        return List.of(
+                new Circle(r),
+                new Ellipse(r, r / 3),
+                helix,
+                new TranslatedCurve(new RotatedCurve(helix, new Point3D(1, 1, 0), 0.7), new Point3D(r, -r, 2 * r)));
+    }
+
+    private static void assertWithinBound(Point3D expected, float[] actual, int i, String message) {
+        double bound = FLOAT_BOUND * maxAbs(expected);
+        assertEquals(expected.getX(), actual[3 * i], bound, message);
+        assertEquals(expected.getY(), actual[3 * i + 1], bound, message);
+        assertEquals(expected.getZ(), actual[3 * i + 2], bound, message);
+    }
+
+    private static double maxAbs(Point3D v) {
+        return Math.max(Math.abs(v.getX()), Math.max(Math.abs(v.getY()), Math.abs(v.getZ())));
+    }
+}
@@ -0,0 +1,128 @@
+package curves;
+
+import javafx.geometry.Point3D;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Разбиение потоков сэмплов, их характеристики и примитивные проекции
+class CurveSamplesTest {
+    private static final ParameterGrid GRID = ParameterGrid.covering(0, 2 * Math.PI, 0.01);
+
+    @Test
+    void trySplitHalvesTheFlatIndexRange() {
+        List<Curve3D> curves = List.of(new Circle(1), new Circle(2), new Circle(3));
+        Spliterator<CurveSample> right = CurveSamples.stream(curves, GRID).spliterator();
+        long total = 3L * GRID.size();
+        assertEquals(total, right.getExactSizeIfKnown());
+
+        Spliterator<CurveSample> left = right.trySplit();
+        assertNotNull(left);
+        assertEquals(total / 2, left.getExactSizeIfKnown());
+        assertEquals(total - total / 2, right.getExactSizeIfKnown());
+
+        // Левая половина кончается посреди второй кривой, правая продолжает с того же t
+        int[] lastLeft = new int[2];
+        left.forEachRemaining(sample -> {
+            lastLeft[0] = sample.getCurveIndex();
+            lastLeft[1]++;
+        });
+        assertEquals(total / 2, lastLeft[1]);
+        assertEquals(1, lastLeft[0]);
+        assertTrue(right.tryAdvance(sample -> assertEquals(GRID.getT((int) (total / 2 % GRID.size())), sample.getT())));
+        assertEquals(total - total / 2 - 1, right.estimateSize());
+    }
+
+    @Test
+    void splitsDownToMinimumAndCoversEverySample() {
+        List<Curve3D> curves = List.of(new Helix(1, 1));
+        List<Spliterator<CurveSample>> parts = new ArrayList<>();
+        parts.add(CurveSamples.stream(curves, GRID).spliterator());
+        for (int i = 0; i < parts.size(); ) {
+            Spliterator<CurveSample> prefix = parts.get(i).trySplit();
+            if (prefix == null) i++;
+            else parts.add(i, prefix);
+        }
+
+        long[] seen = new long[1];
+        for (Spliterator<CurveSample> part : parts) {
+            long expected = part.getExactSizeIfKnown();
+            assertTrue(expected < 128, "part of " + expected); // меньшие части не делятся
+            long before = seen[0];
+            part.forEachRemaining(sample -> assertEquals(GRID.getT((int) seen[0]++), sample.getT()));
+            assertEquals(expected, seen[0] - before);
+        }
+        assertEquals(GRID.size(), seen[0]);
+        assertNull(CurveSamples.stream(curves, new ParameterGrid(0, 1, 100)).spliterator().trySplit());
+    }
+
+    @Test
+    void reportsSizedSubsizedAndImmutable() {
+        Spliterator<CurveSample> samples = CurveSamples.stream(List.of(new Circle(1)), GRID).spliterator();
+        Spliterator.OfDouble norms = CurveSamples.derivativeNorms(List.of(new Circle(1)), GRID).spliterator();
+        for (Spliterator<?> spliterator : List.of(samples, norms)) {
+            int flags = Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+                    | Spliterator.IMMUTABLE | Spliterator.NONNULL;
+            assertEquals(flags, spliterator.characteristics() & flags);
+            Spliterator<?> prefix = spliterator.trySplit();
+            assertEquals(flags, prefix.characteristics() & flags);
+            assertEquals(GRID.size(), prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown());
+        }
+    }
+
+    @Test
+    void laterChangesToCallerListDoNotLeakIntoStream() {
+        List<Curve3D> curves = new ArrayList<>(List.of(new Circle(1), new Circle(2)));
+        Spliterator<CurveSample> spliterator = CurveSamples.stream(curves, GRID).spliterator();
+        curves.clear();
+
+        long[] count = new long[1];
+        spliterator.forEachRemaining(sample -> count[0]++);
+        assertEquals(2L * GRID.size(), count[0]);
+        assertThrows(NullPointerException.class, () -> CurveSamples.stream(Arrays.asList(new Circle(1), null), GRID));
+    }
+
+    @Test
+    void projectionsComputeBoundsInParallel() {
+        List<Curve3D> curves = new ArrayList<>();
+        for (int i = 1; i <= 50; i++)
+            curves.add(new TranslatedCurve(new Ellipse(i, 2 * i), new Point3D(i, 0, -i)));
+
+        // max |r'| эллипса - его большая полуось
+        assertEquals(100, CurveSamples.derivativeNorms(curves, GRID).parallel().max().orElseThrow(), 1e-3);
+
+        DoubleSummaryStatistics x = CurveSamples.coordinates(curves, GRID, 0).parallel().summaryStatistics();
+        assertEquals(50L * GRID.size(), x.getCount());
+        assertEquals(100, x.getMax(), 1e-9); // t = 0 у последнего эллипса: 50 + 50
+        assertEquals(0, x.getMin(), 1e-3); // t около pi: i - i у каждого эллипса
+    }
+
+    @Test
+    void parallelStreamKeepsEncounterOrder() {
+        List<Curve3D> curves = List.of(new Circle(1), new Helix(2, 1), new Ellipse(1, 3));
+        List<Double> sequential = CurveSamples.stream(curves, GRID).map(CurveSample::getT).collect(Collectors.toList());
+        List<Double> parallel = CurveSamples.stream(curves, GRID).parallel().map(CurveSample::getT).collect(Collectors.toList());
+        assertEquals(sequential, parallel);
+
+        double[] z = CurveSamples.coordinates(curves, GRID, 2).parallel().toArray();
+        for (int i = 0; i < GRID.size(); i++)
+            assertEquals(curves.get(1).getPoint(GRID.getT(i)).getZ(), z[GRID.size() + i]);
+        assertThrows(IllegalArgumentException.class, () -> CurveSamples.coordinates(curves, GRID, 3));
+    }
+
+    @Test
+    void coveringRejectsGridsThatDoNotFitInt() {
+        assertEquals(5, ParameterGrid.covering(0, 1, 0.25).size());
+        assertEquals(0, ParameterGrid.covering(1, 0, 0.25).size());
+        assertThrows(IllegalArgumentException.class, () -> ParameterGrid.covering(0, 1e12, 1e-3));
+        assertThrows(IllegalArgumentException.class, () -> ParameterGrid.covering(0, Double.POSITIVE_INFINITY, 1));
+        assertThrows(IllegalArgumentException.class, () -> ParameterGrid.covering(Double.NaN, 1, 1));
+    }
+}
@@ -0,0 +1,146 @@
+package curves;
+
+import javafx.geometry.Point3D;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Корни CurveSlicer против плотного перебора и касательные плоскости (двойные корни)
+class CurveSlicerTest {
+    private static final double T_MIN = -10;
+    private static final double T_MAX = 10;
+    private static final int BRUTE_FORCE_SAMPLES = 400_000;
+    // Часть точек касания совпадает с узлами сетки общего пути (шаг 0.05)
+    private static final double[] TOUCH_POINTS = ParameterGrid.covering(-9.5, 9.5, 0.37).toArray();
+
+    @Test
+    void rootCountMatchesBruteForceSignChanges() {
+        Random random = new Random(32);
+        List<Curve3D> curves = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            curves.add(randomCurve(random, i % 4));
+        List<Plane> planes = new ArrayList<>();
+        for (int j = 0; j < 5; j++)
+            planes.add(new Plane(randomUnit(random), random.nextDouble() * 4 - 2));
+
+        for (Curve3D curve : curves) {
+            for (Plane plane : planes) {
+                double[] roots = CurveSlicer.intersect(curve, plane, T_MIN, T_MAX);
+                assertEquals(bruteForceCrossings(curve, plane), roots.length, curve + " x " + plane.getNormal());
+                for (double t : roots)
+                    assertEquals(0, plane.signedDistance(curve.getPoint(t)), 1e-9);
+            }
+        }
+
+        List<PlaneIntersection> all = CurveSlicer.slice(curves, planes, T_MIN, T_MAX);
+        int expected = 0;
+        for (Curve3D curve : curves)
+            for (Plane plane : planes)
+                expected += CurveSlicer.intersect(curve, plane, T_MIN, T_MAX).length;
+        assertEquals(expected, all.size());
+    }
+
+    @Test
+    void findsTangentialRootOnHelix() {
+        Curve3D helix = new RotatedCurve(new Helix(2, 3), new Point3D(1, 1, 0), 0.4);
+        for (double t0 : TOUCH_POINTS)
+            assertTouches(helix, t0);
+    }
+
+    @Test
+    void findsTangentialRootOnGenericCurve() {
+        Helix helix = new Helix(2, 3);
+        // Только getPoint и getDerivative - идёт по общему пути с сеткой
+        Curve3D generic = new Curve3D() {
+            @Override
+            public Point3D getPoint(double t) {
+                return helix.getPoint(t);
+            }
+
+            @Override
+            public Point3D getDerivative(double t) {
+                return helix.getDerivative(t);
+            }
+        };
+        for (double t0 : TOUCH_POINTS)
+            assertTouches(generic, t0);
+    }
+
+    @Test
+    void findsTangentialRootOnRotatedEllipse() {
+        Curve3D ellipse = new TranslatedCurve(new RotatedCurve(new Ellipse(3, 1.5), new Point3D(0.3, 1, 0.2), 1.1),
+                new Point3D(1, -2, 0.5));
+        for (double t0 : TOUCH_POINTS)
+            assertTouches(ellipse, t0);
+    }
+
+    // Плоскость через r(t0) с нормалью, перпендикулярной r'(t0): корень в t0 двойной
+    private static void assertTouches(Curve3D curve, double t0) {
+        Point3D tangent = curve.getDerivative(t0);
+        Point3D normal = tangent.crossProduct(new Point3D(0.2, -0.5, 1));
+        Plane plane = Plane.through(curve.getPoint(t0), normal);
+
+        double[] roots = CurveSlicer.intersect(curve, plane, T_MIN, T_MAX);
+        int near = 0;
+        for (double t : roots)
+            if (Math.abs(t - t0) < 1e-3) near++;
+        assertEquals(1, near, "roots near t0=" + t0 + ": " + Arrays.toString(roots));
+        for (double t : roots)
+            if (Math.abs(t - t0) < 1e-3) assertEquals(t0, t, 1e-5);
+    }
+
+    private static int bruteForceCrossings(Curve3D curve, Plane plane) {
+        int crossings = 0;
+        double previous = plane.signedDistance(curve.getPoint(T_MIN));
+        if (previous == 0) crossings++;
+        for (int i = 1; i <= BRUTE_FORCE_SAMPLES; i++) {
+            double t = T_MIN + (T_MAX - T_MIN) * i / BRUTE_FORCE_SAMPLES;
+            double value = plane.signedDistance(curve.getPoint(t));
+            if (value == 0 || (previous != 0 && (previous < 0) != (value < 0))) crossings++;
+            previous = value;
+        }
+        return crossings;
+    }
+
+    private static Curve3D randomCurve(Random random, int kind) {
+        Curve3D base = switch (kind) {
+            case 0 -> new Circle(0.5 + random.nextDouble() * 3);
+            case 1 -> new Ellipse(0.5 + random.nextDouble() * 3, 0.5 + random.nextDouble() * 3);
+            default -> new Helix(0.5 + random.nextDouble() * 3, random.nextDouble() * 4 - 2);
+        };
+        Curve3D rotated = new RotatedCurve(base, randomUnit(random), random.nextDouble() * 2 * Math.PI);
+        Curve3D curve = new TranslatedCurve(rotated, randomUnit(random).multiply(random.nextDouble()));
+        if (kind < 3) return curve;
+
+        // Та же спираль без аналитики - общий путь
+        return new Curve3D() {
+            @Override
+            public Point3D getPoint(double t) {
+                return curve.getPoint(t);
+            }
+
+            @Override
+            public Point3D getDerivative(double t) {
+                return curve.getDerivative(t);
+            }
+
+            @Override
+            public String toString() {
+                return "generic " + curve;
+            }
+        };
+    }
+
+    private static Point3D randomUnit(Random random) {
+        Point3D v;
+        do {
+            v = new Point3D(random.nextGaussian(), random.nextGaussian(), random.nextGaussian());
+        } while (v.magnitude() < 1e-3);
+        return v.normalize();
+    }
+}
@@ -0,0 +1,105 @@
+package curves;
+
+import javafx.geometry.Point3D;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Реперы Френе: ортонормированность на спирали и корректный репер там, где нормаль не определена
+class FrenetFramesTest {
+    private static final double EPS = 1e-9;
+    private static final double[] T = ParameterGrid.covering(-2, 2, 0.01).toArray();
+
+    @Test
+    void helixFramesAreOrthonormal() {
+        double radius = 2, step = 3;
+        FrenetFrames frames = FrenetFrames.evaluate(new Helix(radius, step), T);
+
+        double c = step / (2 * Math.PI);
+        double curvature = radius / (radius * radius + c * c);
+        for (int i = 0; i < frames.size(); i++) {
+            assertOrthonormal(frames, i);
+            assertEquals(curvature, frames.getCurvature(i), EPS);
+            // Нормаль спирали направлена к оси
+            Point3D toAxis = new Point3D(-Math.cos(T[i]), -Math.sin(T[i]), 0);
+            assertEquals(0, frames.getNormal(i).subtract(toAxis).magnitude(), EPS);
+        }
+    }
+
+    @Test
+    void straightLineGetsPerpendicularNormal() {
+        // r'' не переопределена - берётся центральная разность, а у прямой она нулевая
+        Curve3D line = new Curve3D() {
+            @Override
+            public Point3D getPoint(double t) {
+                return new Point3D(t, 2 * t, -t);
+            }
+
+            @Override
+            public Point3D getDerivative(double t) {
+                return new Point3D(1, 2, -1);
+            }
+        };
+        FrenetFrames frames = FrenetFrames.evaluate(line, T);
+
+        Point3D direction = new Point3D(1, 2, -1).normalize();
+        for (int i = 0; i < frames.size(); i++) {
+            assertOrthonormal(frames, i);
+            assertEquals(0.0, frames.getCurvature(i));
+            assertEquals(0, frames.getTangent(i).subtract(direction).magnitude(), EPS);
+            // Вдоль прямой нормаль переносится без поворота
+            assertEquals(0, frames.getNormal(i).subtract(frames.getNormal(0)).magnitude(), EPS);
+        }
+    }
+
+    @Test
+    void stationaryPointAtStartCarriesSeedFrame() {
+        // r(t) = (t^3, 0, 0): в t = 0 скорость нулевая, дальше - прямая
+        Curve3D cubic = new Curve3D() {
+            @Override
+            public Point3D getPoint(double t) {
+                return new Point3D(t * t * t, 0, 0);
+            }
+
+            @Override
+            public Point3D getDerivative(double t) {
+                return new Point3D(3 * t * t, 0, 0);
+            }
+        };
+        FrenetFrames frames = FrenetFrames.evaluate(cubic, new double[]{0, 0.5, 1});
+        for (int i = 0; i < frames.size(); i++) {
+            assertOrthonormal(frames, i);
+            assertEquals(0.0, frames.getCurvature(i));
+        }
+    }
+
+    @Test
+    void defaultSecondDerivativeMatchesAnalytic() {
+        Helix helix = new Helix(2, 3);
+        Curve3D numeric = new Curve3D() {
+            @Override
+            public Point3D getPoint(double t) {
+                return helix.getPoint(t);
+            }
+
+            @Override
+            public Point3D getDerivative(double t) {
+                return helix.getDerivative(t);
+            }
+        };
+        for (double t : T)
+            assertEquals(0, numeric.getSecondDerivative(t).subtract(helix.getSecondDerivative(t)).magnitude(), 1e-8);
+    }
+
+    private static void assertOrthonormal(FrenetFrames frames, int i) {
+        Point3D t = frames.getTangent(i), n = frames.getNormal(i), b = frames.getBinormal(i);
+        String where = "t=" + frames.getParameter(i);
+        assertEquals(1, t.magnitude(), EPS, where);
+        assertEquals(1, n.magnitude(), EPS, where);
+        assertEquals(1, b.magnitude(), EPS, where);
+        assertEquals(0, t.dotProduct(n), EPS, where);
+        assertEquals(0, t.dotProduct(b), EPS, where);
+        assertEquals(0, n.dotProduct(b), EPS, where);
+        assertEquals(0, t.crossProduct(n).subtract(b).magnitude(), EPS, where);
+    }
+}
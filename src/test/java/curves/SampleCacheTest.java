@@ -0,0 +1,61 @@
+package curves;
+
+import javafx.geometry.Point3D;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Записи кэша по точности: float-буферы не расходуют место на double-сэмплы и наоборот
+class SampleCacheTest {
+    private static final ParameterGrid GRID = ParameterGrid.covering(0, 4 * Math.PI, 0.07);
+    private static final int COMPONENTS = 3 * GRID.size();
+
+    @Test
+    void floatEntriesAreSeparateAndHalfTheSize() {
+        SampleCache cache = new SampleCache(1 << 20);
+        Curve3D base = new Helix(3, 2);
+        Curve3D moved = new TranslatedCurve(new RotatedCurve(new Helix(3, 2), new Point3D(1, 0, 1), 0.7),
+                new Point3D(5, -1, 2));
+
+        cache.sample(base, GRID, new double[COMPONENTS], new double[COMPONENTS]);
+        long doubleBytes = cache.getSizeInBytes();
+        assertEquals(2L * COMPONENTS * Double.BYTES, doubleBytes);
+
+        cache.sample(moved, GRID, new float[COMPONENTS], new float[COMPONENTS]);
+        assertEquals(2, cache.size());
+        assertEquals(doubleBytes + 2L * COMPONENTS * Float.BYTES, cache.getSizeInBytes());
+        assertEquals(2, cache.getMissCount());
+
+        // Повторный запрос той же точности - попадание, даже для другой цепочки декораторов
+        cache.sample(base, GRID, new float[COMPONENTS], null);
+        cache.sample(moved, GRID, new double[COMPONENTS], null);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void floatSamplesStayCloseToExactValues() {
+        SampleCache cache = new SampleCache(1 << 20);
+        double radius = 1e4;
+        Curve3D curve = new TranslatedCurve(new RotatedCurve(new Ellipse(radius, radius / 2), new Point3D(1, 2, 3), 1.3),
+                new Point3D(radius, 0, -radius));
+        float[] points = new float[COMPONENTS];
+        float[] derivatives = new float[COMPONENTS];
+        cache.sample(curve, GRID, points, derivatives);
+
+        // Округление базы и результата: по 2^-24 от размера базы и от модуля результата
+        double[] t = GRID.toArray();
+        for (int i = 0; i < t.length; i++) {
+            Point3D p = curve.getPoint(t[i]);
+            Point3D d = curve.getDerivative(t[i]);
+            double pointBound = Math.scalb(1.0, -24) * (2 * radius + p.magnitude());
+            double derivativeBound = Math.scalb(1.0, -24) * (2 * radius + d.magnitude());
+            assertEquals(p.getX(), points[3 * i], pointBound);
+            assertEquals(p.getY(), points[3 * i + 1], pointBound);
+            assertEquals(p.getZ(), points[3 * i + 2], pointBound);
+            assertEquals(d.getX(), derivatives[3 * i], derivativeBound);
+            assertEquals(d.getY(), derivatives[3 * i + 1], derivativeBound);
+            assertEquals(d.getZ(), derivatives[3 * i + 2], derivativeBound);
+        }
+    }
+}
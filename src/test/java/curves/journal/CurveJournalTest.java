@@ -0,0 +1,203 @@
+package curves.journal;
+
+import curves.Circle;
+import curves.Curve3D;
+import curves.Ellipse;
+import curves.Helix;
+import curves.TranslatedCurve;
+import javafx.geometry.Point3D;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Восстановление журнала после переоткрытия: добавления, удаления и удаления встроенных кривых
+class CurveJournalTest {
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("curve-journal");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList())
+                Files.delete(file);
+        }
+    }
+
+    @Test
+    void restoresAppendsAndRemovals() throws IOException {
+        Curve3D helix = new Helix(1, 2);
+        Curve3D moved = new TranslatedCurve(new Circle(3), new Point3D(1, 2, 3));
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            journal.append(new Circle(1));
+            journal.append(helix);
+            journal.append(moved);
+            journal.remove(new Circle(1)); // другой объект с тем же значением
+        }
+
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            assertEquals(List.of(helix, moved), journal.getRestoredCurves());
+            assertEquals(List.of(), journal.getExternalRemovals());
+        }
+    }
+
+    @Test
+    void restoresExternalRemovalsWithoutTouchingJournalCurves() throws IOException {
+        // Правка встроенной кривой, равной пользовательской: пользовательская копия остаётся
+        Curve3D builtIn = new Ellipse(2, 3);
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            journal.append(new Ellipse(2, 3));
+            journal.removeExternal(builtIn);
+            journal.append(new Ellipse(2, 4));
+        }
+
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            assertEquals(List.of(new Ellipse(2, 3), new Ellipse(2, 4)), journal.getRestoredCurves());
+            assertEquals(List.of(builtIn), journal.getExternalRemovals());
+        }
+    }
+
+    @Test
+    void removalTakesLastEqualCopy() throws IOException {
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            journal.append(new Circle(1));
+            journal.append(new Helix(1, 1));
+            journal.append(new Circle(1));
+            journal.append(new Circle(2));
+            journal.remove(new Circle(1));
+            journal.remove(new Ellipse(5, 5)); // такой кривой нет - запись ничего не меняет
+        }
+
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            assertEquals(List.of(new Circle(1), new Helix(1, 1), new Circle(2)), journal.getRestoredCurves());
+        }
+    }
+
+    @Test
+    void dropsTornTailAndKeepsLaterAppends() throws IOException {
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            journal.append(new Circle(1));
+            journal.append(new Helix(1, 2));
+        }
+        // Сбой посреди записи: заголовок записи есть, а данных меньше, чем в нём указано
+        Path file = directory.resolve("curves.journal");
+        long intact = Files.size(file);
+        Files.write(file, ByteBuffer.allocate(12).putInt(100).putInt(0).putInt(7).array(), StandardOpenOption.APPEND);
+
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            assertEquals(List.of(new Circle(1), new Helix(1, 2)), journal.getRestoredCurves());
+            assertEquals(intact, Files.size(file)); // оборванный хвост отрезан
+            journal.append(new Ellipse(3, 4));
+        }
+
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            assertEquals(List.of(new Circle(1), new Helix(1, 2), new Ellipse(3, 4)), journal.getRestoredCurves());
+        }
+    }
+
+    @Test
+    void dropsRecordWithBadChecksum() throws IOException {
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            journal.append(new Circle(1));
+            journal.append(new Circle(2));
+        }
+        // Последний байт файла - младший байт радиуса последней записи
+        Path file = directory.resolve("curves.journal");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            assertEquals(List.of(new Circle(1)), journal.getRestoredCurves());
+            journal.append(new Circle(3));
+        }
+
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            assertEquals(List.of(new Circle(1), new Circle(3)), journal.getRestoredCurves());
+        }
+    }
+
+    @Test
+    void rejectsFrameLongerThanItsCurve() throws IOException {
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            journal.append(new Circle(1));
+        }
+        // Контрольная сумма верна, но после кривой в записи остался лишний байт
+        ByteBuffer payload = ByteBuffer.allocate(1 + Double.BYTES + 1).put((byte) 1).putDouble(2).put((byte) 0);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.array());
+        ByteBuffer frame = ByteBuffer.allocate(2 * Integer.BYTES + payload.capacity())
+                .putInt(payload.capacity()).putInt((int) crc.getValue()).put(payload.array());
+        Files.write(directory.resolve("curves.journal"), frame.array(), StandardOpenOption.APPEND);
+
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            assertEquals(List.of(new Circle(1)), journal.getRestoredCurves());
+        }
+    }
+
+    @Test
+    void appendsRacingWithCloseAlwaysComplete() throws Exception {
+        CurveJournal journal = CurveJournal.open(directory);
+        List<CompletableFuture<Void>> futures = new CopyOnWriteArrayList<>();
+        Thread appender = new Thread(() -> {
+            for (int i = 0; ; i++) {
+                try {
+                    futures.add(journal.append(new Circle(1 + i)));
+                } catch (IllegalStateException closed) {
+                    return;
+                }
+            }
+        });
+        appender.start();
+        Thread.sleep(20);
+        journal.close();
+        appender.join(5_000);
+        assertFalse(appender.isAlive());
+
+        // Каждая принятая запись либо зафиксирована, либо завершена ошибкой
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException failed) {
+                assertTrue(failed.getCause() instanceof IllegalStateException);
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> journal.append(new Circle(1)));
+    }
+
+    @Test
+    void keepsExternalRemovalsThroughCompaction() throws IOException {
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            journal.removeExternal(new Circle(2));
+            for (int i = 0; i < 50_000; i++)
+                journal.append(new Circle(1 + i % 7));
+            for (int i = 0; i < 49_990; i++)
+                journal.remove(new Circle(1 + i % 7));
+        }
+        assertTrue(Files.exists(directory.resolve("curves.snapshot")));
+
+        try (CurveJournal journal = CurveJournal.open(directory)) {
+            assertEquals(10, journal.getRestoredCurves().size());
+            assertEquals(List.of(new Circle(2)), journal.getExternalRemovals());
+        }
+    }
+}
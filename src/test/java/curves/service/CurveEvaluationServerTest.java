@@ -0,0 +1,192 @@
+package curves.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Полный цикл запрос-ответ через loopback: сервер на свободном порту, клиент HttpURLConnection
+class CurveEvaluationServerTest {
+    private static final double EPS = 1e-12;
+    private static final String CIRCLE_REQUEST =
+            "{\"curves\":[{\"type\":\"circle\",\"radius\":2}],\"t\":[0,1.5707963267948966],\"derivatives\":true}";
+
+    private CurveEvaluationServer server;
+
+    private record Response(int status, String contentType, byte[] body) {
+        String text() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = CurveEvaluationServer.localhost(0);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void evaluatesJson() throws Exception {
+        Response response = request("POST", "/evaluate", CIRCLE_REQUEST, null);
+        assertEquals(200, response.status());
+        assertEquals("application/json", response.contentType());
+
+        Map<?, ?> root = (Map<?, ?>) JsonReader.parse(response.text());
+        Map<?, ?> curve = (Map<?, ?>) ((List<?>) root.get("curves")).get(0);
+        List<?> points = (List<?>) curve.get("points");
+        List<?> derivatives = (List<?>) curve.get("derivatives");
+
+        assertVector(List.of(2.0, 0.0, 0.0), points.get(0));
+        assertVector(List.of(0.0, 2.0, 0.0), points.get(1));
+        assertVector(List.of(0.0, 2.0, 0.0), derivatives.get(0));
+        assertVector(List.of(-2.0, 0.0, 0.0), derivatives.get(1));
+    }
+
+    @Test
+    void evaluatesBinary() throws Exception {
+        String body = "{\"curves\":[{\"type\":\"translated\",\"offset\":[1,2,3],"
+                + "\"curve\":{\"type\":\"helix\",\"radius\":1,\"step\":6.283185307179586}}],"
+                + "\"t\":[0,3.141592653589793],\"derivatives\":false}";
+        Response response = request("POST", "/evaluate?format=binary", body, null);
+        assertEquals(200, response.status());
+        assertEquals(CurveEvaluationServer.BINARY_TYPE, response.contentType());
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(response.body()));
+        assertEquals(1, in.readInt());
+        assertEquals(2, in.readInt());
+        assertEquals(0, in.readByte());
+        double[] expected = {2, 2, 3, 0, 2, 3 + Math.PI};
+        for (double value : expected)
+            assertEquals(value, in.readDouble(), EPS);
+        assertEquals(0, in.available());
+
+        // Accept-заголовок выбирает тот же формат
+        Response viaAccept = request("POST", "/evaluate", body, CurveEvaluationServer.BINARY_TYPE);
+        assertArrayEquals(response.body(), viaAccept.body());
+
+        awaitMetrics(2, 0);
+        assertEquals(2L * response.body().length, server.getMetrics().getByteCount());
+    }
+
+    @Test
+    void rejectsInvalidRequests() throws Exception {
+        assertEquals(400, request("POST", "/evaluate", "{\"curves\":[", null).status());
+        assertEquals(400, request("POST", "/evaluate",
+                "{\"curves\":[{\"type\":\"circle\",\"radius\":1}],\"t\":[1e400]}", null).status());
+        assertEquals(400, request("POST", "/evaluate",
+                "{\"curves\":[{\"type\":\"circle\",\"radius\":-1}],\"t\":[0]}", null).status());
+        assertEquals(400, request("POST", "/evaluate",
+                "{\"curves\":[{\"type\":\"rotated\",\"axis\":[0,0,0],\"angle\":1,"
+                        + "\"curve\":{\"type\":\"circle\",\"radius\":1}}],\"t\":[0]}", null).status());
+        assertEquals(400, request("POST", "/evaluate",
+                "{\"curves\":[{\"type\":\"spiral\"}],\"t\":[0]}", null).status());
+        assertEquals(405, request("GET", "/evaluate", null, null).status());
+    }
+
+    @Test
+    void rejectsOversizedAndDeepRequests() throws Exception {
+        String padding = " ".repeat(CurveEvaluationServer.MAX_BODY_BYTES);
+        assertEquals(413, request("POST", "/evaluate", CIRCLE_REQUEST + padding, null).status());
+
+        // Глубокий JSON и глубокая цепочка декораторов - 400, а не переполнение стека
+        assertEquals(400, request("POST", "/evaluate", "[".repeat(100_000), null).status());
+        String nested = "{\"type\":\"circle\",\"radius\":1}";
+        for (int i = 0; i < EvaluationRequest.MAX_CURVE_DEPTH; i++)
+            nested = "{\"type\":\"translated\",\"offset\":[0,0,0],\"curve\":" + nested + "}";
+        assertEquals(400, request("POST", "/evaluate", "{\"curves\":[" + nested + "],\"t\":[0]}", null).status());
+
+        String curves = ",{\"type\":\"circle\",\"radius\":1}".repeat(1_001).substring(1);
+        String t = ",0".repeat(1_000).substring(1);
+        assertEquals(400, request("POST", "/evaluate", "{\"curves\":[" + curves + "],\"t\":[" + t + "]}", null).status());
+        awaitMetrics(0, 4);
+    }
+
+    @Test
+    void parsesFormatParameter() throws Exception {
+        String json = "application/json";
+        assertEquals(json, request("POST", "/evaluate?format=binaryish", CIRCLE_REQUEST, null).contentType());
+        assertEquals(json, request("POST", "/evaluate?xformat=binary", CIRCLE_REQUEST, null).contentType());
+        assertEquals(CurveEvaluationServer.BINARY_TYPE,
+                request("POST", "/evaluate?pretty&format=%62inary", CIRCLE_REQUEST, null).contentType());
+    }
+
+    @Test
+    void failuresStayOutOfLatencyHistogram() throws Exception {
+        for (int i = 0; i < 20; i++)
+            request("POST", "/evaluate", "{}", null);
+        awaitMetrics(0, 20);
+        assertEquals(0.0, server.getMetrics().getLatencyPercentileMillis(99));
+    }
+
+    @Test
+    void reportsMetrics() throws Exception {
+        request("POST", "/evaluate", CIRCLE_REQUEST, null);
+        request("POST", "/evaluate", "{}", null);
+        awaitMetrics(1, 1);
+
+        Response response = request("GET", "/metrics", null, null);
+        assertEquals(200, response.status());
+        Map<?, ?> metrics = (Map<?, ?>) JsonReader.parse(response.text());
+        assertEquals(1.0, metrics.get("requests"));
+        assertEquals(1.0, metrics.get("failures"));
+        assertEquals(2.0, metrics.get("samples"));
+        assertTrue((Double) metrics.get("p99Millis") > 0);
+    }
+
+    private Response request(String method, String path, String body, String accept) throws IOException {
+        URI uri = URI.create("http://127.0.0.1:" + server.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+        try {
+            connection.setRequestMethod(method);
+            if (accept != null) connection.setRequestProperty("Accept", accept);
+            if (body != null) {
+                connection.setDoOutput(true);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                byte[] bytes = in == null ? new byte[0] : in.readAllBytes();
+                return new Response(status, connection.getContentType(), bytes);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    // Метрики записываются сразу после отправки ответа, клиент может успеть раньше
+    private void awaitMetrics(long requests, long failures) throws InterruptedException {
+        ServiceMetrics metrics = server.getMetrics();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while ((metrics.getRequestCount() < requests || metrics.getFailureCount() < failures)
+                && System.nanoTime() < deadline)
+            Thread.sleep(5);
+        assertEquals(requests, metrics.getRequestCount());
+        assertEquals(failures, metrics.getFailureCount());
+    }
+
+    private static void assertVector(List<Double> expected, Object actual) {
+        List<?> components = (List<?>) actual;
+        assertEquals(3, components.size());
+        for (int i = 0; i < 3; i++)
+            assertEquals(expected.get(i), (Double) components.get(i), EPS);
+    }
+}
@@ -0,0 +1,135 @@
+package curves.visualization;
+
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.shape.Sphere;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Smoke-тест запуска без экрана: вкладки строятся при первом выборе, точки догружаются по кадрам,
+// StartupTimer печатает время до первого кадра и до полной загрузки
+class MainApplicationTest {
+    private static final long TIMEOUT_NANOS = 60_000_000_000L;
+
+    private Path home;
+    private String originalHome;
+    private PrintStream originalOut;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @BeforeAll
+    static void startToolkit() throws InterruptedException {
+        RenderingBenchmark.startHeadlessToolkit();
+    }
+
+    // Журнал открывается в user.home - подменяем его, чтобы не трогать настоящий
+    @BeforeEach
+    void redirectHomeAndOutput() throws IOException {
+        home = Files.createTempDirectory("curves-home");
+        originalHome = System.getProperty("user.home");
+        System.setProperty("user.home", home.toString());
+        originalOut = System.out;
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void restoreHomeAndOutput() throws IOException {
+        System.setOut(originalOut);
+        System.setProperty("user.home", originalHome);
+        try (Stream<Path> files = Files.walk(home)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList())
+                Files.delete(file);
+        }
+    }
+
+    @Test
+    void buildsTabsLazilyAndStreamsGeometry() throws Exception {
+        MainApplication app = new MainApplication();
+        Stage stage = RenderingBenchmark.onFxThread(() -> {
+            Stage primaryStage = new Stage();
+            app.start(primaryStage);
+            return primaryStage;
+        });
+        TabPane tabs = (TabPane) ((BorderPane) stage.getScene().getRoot()).getCenter();
+
+        try {
+            // Выбранная вкладка строится в runLater после show(), остальные ждут выбора
+            RenderingBenchmark.onFxThread(() -> {
+                assertFalse(isPlaceholder(tabs.getTabs().get(0)));
+                assertTrue(isPlaceholder(tabs.getTabs().get(1)));
+                assertTrue(isPlaceholder(tabs.getTabs().get(2)));
+                tabs.getSelectionModel().select(1);
+                assertFalse(isPlaceholder(tabs.getTabs().get(1)));
+                return null;
+            });
+
+            // Большая дельта из другого потока: точки строятся порциями, таблица получает все строки
+            app.getCurveRegistry().addAll(RenderingBenchmark.syntheticCurves(600, 28));
+            TableView<?> table = (TableView<?>) ((VBox) tabs.getTabs().get(1).getContent()).getChildren().get(1);
+            awaitOnFxThread(() -> !app.isGeometryLoading()
+                    && table.getItems().size() == app.getCurveRegistry().snapshot().size());
+            assertEquals(603, table.getItems().size());
+
+            // Потоковая загрузка даёт ту же сцену, что и синхронное построение
+            long streamedDots = RenderingBenchmark.onFxThread(() -> countSpheres(app.getVisualizationRoot()));
+            long syncDots = RenderingBenchmark.onFxThread(() -> {
+                app.showCurvesByType("Helix", false);
+                return countSpheres(app.getVisualizationRoot());
+            });
+            assertTrue(streamedDots > 0);
+            assertEquals(syncDots, streamedDots);
+
+            // Отчёт печатается, когда есть и первый кадр, и окончание загрузки
+            awaitOnFxThread(() -> output.toString(StandardCharsets.UTF_8).contains("time to fully interactive"));
+            assertTrue(output.toString(StandardCharsets.UTF_8).contains("time to first frame"));
+        } finally {
+            RenderingBenchmark.onFxThread(() -> {
+                stage.close();
+                app.stop();
+                return null;
+            });
+        }
+    }
+
+    private static boolean isPlaceholder(Tab tab) {
+        return tab.getContent() instanceof BorderPane pane
+                && pane.getCenter() instanceof Label label && "Loading...".equals(label.getText());
+    }
+
+    private static long countSpheres(Node node) {
+        long count = node instanceof Sphere ? 1 : 0;
+        if (node instanceof Parent parent)
+            for (Node child : parent.getChildrenUnmodifiable())
+                count += countSpheres(child);
+        return count;
+    }
+
+    // Условие проверяется в FX-потоке между кадрами, пока не выполнится
+    private static void awaitOnFxThread(Callable<Boolean> condition) throws Exception {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (!RenderingBenchmark.onFxThread(condition)) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package curves.visualization;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Smoke-тест замера без экрана: сцена строится, кадры идут, отчёт пишется по каждому размеру
+class RenderingBenchmarkTest {
+
+    @BeforeAll
+    static void startToolkit() throws InterruptedException {
+        RenderingBenchmark.startHeadlessToolkit();
+    }
+
+    @Test
+    void syntheticCurvesAreReproducible() {
+        assertEquals(RenderingBenchmark.syntheticCurves(30, 7), RenderingBenchmark.syntheticCurves(30, 7));
+        assertEquals(30, RenderingBenchmark.syntheticCurves(30, 7).size());
+    }
+
+    @Test
+    void measuresSmallContainer() throws Exception {
+        String run = RenderingBenchmark.measure(12);
+
+        assertEquals(12, field(run, "curves"));
+        assertEquals(120, field(run, "frames"));
+        // Оси, таблица и точки 12 кривых: заведомо больше сотни узлов
+        assertTrue(field(run, "nodeCount") > 100, run);
+        assertFalse(run.contains("NaN"), run);
+    }
+
+    @Test
+    void writesOneRunPerSize() throws Exception {
+        Path report = Files.createTempFile("render-benchmark", ".json");
+        try {
+            RenderingBenchmark.writeReport(report, new int[]{3, 5});
+            String json = Files.readString(report, StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"curves\":3,"), json);
+            assertTrue(json.contains("\"curves\":5,"), json);
+            assertTrue(json.contains("\"platform\":\"Headless\""), json);
+            assertFalse(json.contains("\"error\""), json);
+        } finally {
+            Files.delete(report);
+        }
+    }
+
+    private static long field(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\":(\\d+)").matcher(json);
+        assertTrue(matcher.find(), name + " in " + json);
+        return Long.parseLong(matcher.group(1));
+    }
+}